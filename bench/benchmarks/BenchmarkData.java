@@ -0,0 +1,152 @@
+package benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.Task;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic datasets and scratch directories shared by the storage benchmarks.
+ * Tasks are generated on the fly so even the 1M datasets are written without building a list first.
+ */
+final class BenchmarkData {
+
+    private static final long SEED = 42L;
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates {@code count} tasks with stable ids, one minute apart, every third one completed.
+     */
+    static Iterable<Task> tasks(int count) {
+        return () -> new Iterator<>() {
+            private final Random random = new Random(SEED);
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public Task next() {
+                int i = index++;
+                UUID id = new UUID(random.nextLong(), random.nextLong());
+                return new Task("Task " + i, "Benchmark task number " + i + " with a short description",
+                        new Date(START_MILLIS + i * 60_000L), i % 3 == 0, id);
+            }
+        };
+    }
+
+    static List<UUID> ids(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (Task task : tasks(count)) {
+            ids.add(task.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Feeds the dataset to {@code sink} in lists of at most {@code chunkSize} tasks.
+     */
+    static void forEachChunk(int count, int chunkSize, Consumer<List<Task>> sink) {
+        List<Task> chunk = new ArrayList<>(chunkSize);
+        for (Task task : tasks(count)) {
+            chunk.add(task);
+            if (chunk.size() == chunkSize) {
+                sink.accept(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            sink.accept(chunk);
+        }
+    }
+
+    static void writeJson(Path file, int count) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(file.toFile(),
+                com.fasterxml.jackson.core.JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            for (Task task : tasks(count)) {
+                mapper.writeValue(generator, task);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    static void writeXml(Path file, int count) throws IOException {
+        SimpleDateFormat formatter = new SimpleDateFormat("MM-dd-yyyy hh:mm:ss a");
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n");
+            XMLStreamWriter writer = XMLOutputFactory.newFactory().createXMLStreamWriter(out);
+            writer.writeStartElement("tasks");
+            for (Task task : tasks(count)) {
+                writer.writeCharacters("\n    ");
+                writer.writeStartElement("task");
+                writer.writeAttribute("completed", String.valueOf(task.getStatus()));
+                writer.writeAttribute("id", task.getId().toString());
+                writeField(writer, "title", task.getTitle());
+                writeField(writer, "description", task.getDescription());
+                writeField(writer, "CreatedAt", formatter.format(task.getDate()));
+                writer.writeCharacters("\n    ");
+                writer.writeEndElement();
+            }
+            writer.writeCharacters("\n");
+            writer.writeEndElement();
+            writer.close();
+            out.write("\n");
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void writeField(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
+        writer.writeCharacters("\n        ");
+        writer.writeStartElement(name);
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+    }
+
+    static Path tempDir(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix);
+    }
+
+    static void deleteRecursively(Path dir) {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package benchmarks;
+
+import database.DatabaseInitializer;
+import database.DatabaseManager;
+import model.Task;
+import model.TaskDAO;
+import model.TaskPage;
+import model.UpdateResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same {@link TaskDAO} operations with embedded Derby and through a Derby Network Server
+ * ({@code taskapp.db.mode=server}), from four threads at once as several instances or request
+ * threads would issue them.
+ *
+ * In server mode the fork starts the Network Server itself on a free port, so the numbers show
+ * the cost of the client driver and the loopback round trip, not of a remote network. The mode is
+ * set before {@code DatabaseConfig} is first loaded, which JMH allows because every parameter
+ * combination runs in its own fork. {@code add} rows are deleted after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@Threads(4)
+public class DerbyModeBenchmark {
+
+    @Param({"embedded", "server"})
+    String mode;
+
+    @Param({"10000", "100000"})
+    int size;
+
+    private Path dir;
+    private TaskDAO dao;
+    private List<UUID> ids;
+    private final Queue<UUID> added = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Each thread walks the ids from its own random start.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int position = -1;
+
+        UUID next(List<UUID> ids) {
+            if (position < 0) {
+                position = ThreadLocalRandom.current().nextInt(ids.size());
+            }
+            position = position + 1 == ids.size() ? 0 : position + 1;
+            return ids.get(position);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = BenchmarkData.tempDir("derby-mode-bench");
+        // Derby resolves the relative database name against derby.system.home
+        System.setProperty("derby.system.home", dir.toString());
+        System.setProperty("taskapp.db.mode", mode);
+        try (ServerSocket socket = new ServerSocket(0)) {
+            System.setProperty("taskapp.db.port", Integer.toString(socket.getLocalPort()));
+        }
+        DatabaseInitializer.initializeDatabase();
+        dao = new TaskDAO();
+        BenchmarkData.forEachChunk(size, 10_000, dao::saveAll);
+        ids = BenchmarkData.ids(size);
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeAdded() {
+        dao.deleteAllById(List.copyOf(added));
+        added.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseManager.shutdown();
+        BenchmarkData.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void add() {
+        Task task = new Task("Added", "Added by benchmark");
+        dao.save(task);
+        added.add(task.getId());
+    }
+
+    @Benchmark
+    public Task lookupById(Cursor cursor) {
+        return dao.findById(cursor.next(ids));
+    }
+
+    @Benchmark
+    public UpdateResult editTitle(Cursor cursor) {
+        return dao.update(cursor.next(ids), task -> task.setTitle("Edited"));
+    }
+
+    @Benchmark
+    public TaskPage listFirstPage() {
+        return dao.listTasksPage(null, 20);
+    }
+}
@@ -0,0 +1,105 @@
+package benchmarks;
+
+import model.JsonDatabase;
+import model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JsonDatabase} on a generated {@code tasks.json} in a temp directory per fork.
+ *
+ * {@code add} tasks are deleted again after every iteration; {@code delete} deletes a task and
+ * adds it back so the store keeps {@code size} tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class JsonDatabaseBenchmark {
+
+    @Param({"100", "10000", "100000", "1000000"})
+    int size;
+
+    private Path dir;
+    private JsonDatabase db;
+    private List<UUID> ids;
+    private final List<Task> added = new ArrayList<>();
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = BenchmarkData.tempDir("json-bench");
+        Path file = dir.resolve("tasks.json");
+        BenchmarkData.writeJson(file, size);
+        // Must be set before the singleton is created
+        System.setProperty("taskapp.json.file", file.toString());
+        db = JsonDatabase.getInstance();
+        ids = BenchmarkData.ids(size);
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeAdded() {
+        for (Task task : added) {
+            db.editTask(task, 4, null);
+        }
+        added.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteRecursively(dir);
+    }
+
+    private UUID nextId() {
+        cursor = cursor + 1 == ids.size() ? 0 : cursor + 1;
+        return ids.get(cursor);
+    }
+
+    @Benchmark
+    public void add() {
+        Task task = new Task("Added", "Added by benchmark");
+        db.addTask(task);
+        added.add(task);
+    }
+
+    @Benchmark
+    public Task lookupById() {
+        return db.findTaskById(nextId());
+    }
+
+    @Benchmark
+    public void editTitle() {
+        db.editTask(db.findTaskById(nextId()), 1, "Edited");
+    }
+
+    @Benchmark
+    public void delete() {
+        Task task = db.findTaskById(nextId());
+        db.editTask(task, 4, null);
+        db.addTask(task);
+    }
+
+    @Benchmark
+    public List<Task> listAll() {
+        return db.getTaskList();
+    }
+}
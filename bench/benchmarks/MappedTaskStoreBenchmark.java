@@ -0,0 +1,100 @@
+package benchmarks;
+
+import model.MappedTaskStore;
+import model.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MappedTaskStore} on files in a temp directory per fork, with the same operations as
+ * {@link JsonDatabaseBenchmark}. The heap is capped well below the data size, so the allocation
+ * rate reported by the GC profiler shows what the store costs per operation, not what it holds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx256m"})
+public class MappedTaskStoreBenchmark {
+
+    @Param({"100", "10000", "100000", "1000000"})
+    int size;
+
+    private Path dir;
+    private MappedTaskStore store;
+    private List<UUID> ids;
+    private final List<Task> added = new ArrayList<>();
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = BenchmarkData.tempDir("mmap-bench");
+        store = new MappedTaskStore(dir.resolve("tasks.mmap"));
+        for (Task task : BenchmarkData.tasks(size)) {
+            store.addTask(task);
+        }
+        ids = BenchmarkData.ids(size);
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeAdded() {
+        for (Task task : added) {
+            store.editTask(task, 4, null);
+        }
+        added.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        BenchmarkData.deleteRecursively(dir);
+    }
+
+    private UUID nextId() {
+        cursor = cursor + 1 == ids.size() ? 0 : cursor + 1;
+        return ids.get(cursor);
+    }
+
+    @Benchmark
+    public void add() {
+        Task task = new Task("Added", "Added by benchmark");
+        store.addTask(task);
+        added.add(task);
+    }
+
+    @Benchmark
+    public Task lookupById() {
+        return store.findTaskById(nextId());
+    }
+
+    @Benchmark
+    public void editTitle() {
+        store.editTask(store.findTaskById(nextId()), 1, "Edited");
+    }
+
+    @Benchmark
+    public void delete() {
+        Task task = store.findTaskById(nextId());
+        store.editTask(task, 4, null);
+        store.addTask(task);
+    }
+}
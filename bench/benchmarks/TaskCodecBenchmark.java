@@ -0,0 +1,107 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import model.JsonTaskReader;
+import model.Task;
+import model.TaskCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-file load and save of the same dataset as pretty-printed JSON (the {@code JsonDatabase}
+ * snapshot format) and as {@link TaskCodec} binary. Divide the file sizes printed at setup by the
+ * scores to get MB/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class TaskCodecBenchmark {
+
+    @Param({"100", "10000", "100000", "1000000"})
+    int size;
+
+    private Path dir;
+    private Path json;
+    private Path binary;
+    private List<Task> tasks;
+    private ObjectMapper mapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = BenchmarkData.tempDir("codec-bench");
+        json = dir.resolve("tasks.json");
+        binary = dir.resolve("tasks.bin");
+        mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        tasks = new ArrayList<>(size);
+        for (Task task : BenchmarkData.tasks(size)) {
+            tasks.add(task);
+        }
+        saveJson();
+        saveBinary();
+        System.out.printf("%n%d tasks: JSON %d bytes, binary %d bytes%n", size, Files.size(json), Files.size(binary));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public void saveJson() throws IOException {
+        mapper.writeValue(json.toFile(), tasks);
+    }
+
+    @Benchmark
+    public void saveBinary() throws IOException {
+        try (TaskCodec.Writer writer = new TaskCodec.Writer(Files.newOutputStream(binary))) {
+            for (Task task : tasks) {
+                writer.write(task);
+            }
+        }
+    }
+
+    @Benchmark
+    public void loadJson(Blackhole blackhole) throws IOException {
+        try (JsonTaskReader reader = new JsonTaskReader(json.toFile(), mapper)) {
+            Task task;
+            while ((task = reader.next()) != null) {
+                blackhole.consume(task);
+            }
+        }
+    }
+
+    @Benchmark
+    public void loadBinary(Blackhole blackhole) throws IOException {
+        try (InputStream in = Files.newInputStream(binary);
+             TaskCodec.Reader reader = new TaskCodec.Reader(in)) {
+            Task task;
+            while ((task = reader.next()) != null) {
+                blackhole.consume(task);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package benchmarks;
+
+import database.DatabaseInitializer;
+import database.DatabaseManager;
+import model.Task;
+import model.TaskDAO;
+import model.TaskPage;
+import model.UpdateResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TaskDAO} against embedded Derby in a fresh temp directory per fork.
+ *
+ * {@code add} inserts new rows; they are deleted again after every iteration so each iteration
+ * starts from {@code size} rows. {@code delete} deletes a row and re-inserts it, so it measures a
+ * delete plus an insert while keeping the table size stable. Both pass the row's current version,
+ * tracked in {@code versions}, so the versioned updates succeed instead of measuring conflicts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class TaskDaoBenchmark {
+
+    @Param({"100", "10000", "100000", "1000000"})
+    int size;
+
+    private Path dir;
+    private TaskDAO dao;
+    private List<UUID> ids;
+    private int[] versions; // row version of ids.get(i)
+    private final List<UUID> added = new ArrayList<>();
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = BenchmarkData.tempDir("taskdao-bench");
+        // Derby resolves the relative database name against derby.system.home
+        System.setProperty("derby.system.home", dir.toString());
+        DatabaseInitializer.initializeDatabase();
+        dao = new TaskDAO();
+        BenchmarkData.forEachChunk(size, 10_000, dao::saveAll);
+        ids = BenchmarkData.ids(size);
+        versions = new int[size];
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeAdded() {
+        dao.deleteAllById(added);
+        added.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseManager.shutdown();
+        BenchmarkData.deleteRecursively(dir);
+    }
+
+    private UUID nextId() {
+        cursor = cursor + 1 == ids.size() ? 0 : cursor + 1;
+        return ids.get(cursor);
+    }
+
+    @Benchmark
+    public void add() {
+        Task task = new Task("Added", "Added by benchmark");
+        dao.save(task);
+        added.add(task.getId());
+    }
+
+    @Benchmark
+    public Task lookupById() {
+        return dao.findById(nextId());
+    }
+
+    @Benchmark
+    public UpdateResult editTitle() {
+        Task task = new Task(null, null, null, false, nextId());
+        task.setVersion(versions[cursor]);
+        UpdateResult result = dao.editTitle(task, "Edited");
+        versions[cursor] = task.getVersion();
+        return result;
+    }
+
+    @Benchmark
+    public void delete() {
+        Task task = new Task("Re-added", "Deleted and re-added by benchmark", new Date(), false, nextId());
+        task.setVersion(versions[cursor]);
+        dao.deleteTask(task);
+        dao.save(task); // re-inserted with the version the delete moved it to
+        versions[cursor] = task.getVersion();
+    }
+
+    @Benchmark
+    public List<Task> listAll() {
+        return dao.listAllTasks();
+    }
+
+    @Benchmark
+    public TaskPage listFirstPage() {
+        return dao.listTasksPage(null, 20);
+    }
+}
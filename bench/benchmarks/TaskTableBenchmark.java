@@ -0,0 +1,100 @@
+package benchmarks;
+
+import model.Task;
+import model.TaskTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same scans and lookups over a {@code List<Task>} and over a {@link TaskTable}. The generated
+ * tasks are one minute apart, so the one-week window matches 10080 of them when the set is large
+ * enough.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class TaskTableBenchmark {
+
+    private static final long WEEK_MILLIS = 7 * 24 * 60 * 60_000L;
+
+    @Param({"100", "10000", "100000", "1000000"})
+    int size;
+
+    private List<Task> list;
+    private TaskTable table;
+    private List<UUID> ids;
+    private long weekStart;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = new ArrayList<>(size);
+        for (Task task : BenchmarkData.tasks(size)) {
+            list.add(task);
+        }
+        table = TaskTable.of(list);
+        ids = BenchmarkData.ids(size);
+        weekStart = list.get(size / 2).getDate().getTime();
+    }
+
+    private UUID nextId() {
+        cursor = cursor + 1 == ids.size() ? 0 : cursor + 1;
+        return ids.get(cursor);
+    }
+
+    @Benchmark
+    public long countOpenList() {
+        long open = 0;
+        for (Task task : list) {
+            if (!task.getStatus()) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    @Benchmark
+    public int countOpenTable() {
+        return table.countOpen();
+    }
+
+    @Benchmark
+    public long createdThisWeekList() {
+        long count = 0;
+        for (Task task : list) {
+            long millis = task.getDate().getTime();
+            if (millis >= weekStart && millis < weekStart + WEEK_MILLIS) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int createdThisWeekTable() {
+        return table.countCreatedBetween(weekStart, weekStart + WEEK_MILLIS);
+    }
+
+    @Benchmark
+    public int lookupByIdTable() {
+        return table.rowOf(nextId());
+    }
+}
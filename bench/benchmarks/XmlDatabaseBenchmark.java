@@ -0,0 +1,121 @@
+package benchmarks;
+
+import model.Task;
+import model.XMLDatabase;
+import model.XmlTaskStreamer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link XMLDatabase} on a generated {@code tasks.xml} in a temp directory per fork.
+ *
+ * {@code lookupById} scans the in-memory list, which is the only id lookup XMLDatabase offers.
+ * {@code listAll} re-reads the whole file with the streaming reader. When {@code add} ran, the
+ * file and list are regenerated after the iteration; {@code delete} deletes a task and adds it back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class XmlDatabaseBenchmark {
+
+    @Param({"100", "10000", "100000", "1000000"})
+    int size;
+
+    private Path dir;
+    private Path file;
+    private XMLDatabase db;
+    private List<UUID> ids;
+    private boolean grew;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = BenchmarkData.tempDir("xml-bench");
+        file = dir.resolve("tasks.xml");
+        // Must be set before XMLDatabase is first loaded
+        System.setProperty("taskapp.xml.file", file.toString());
+        ids = BenchmarkData.ids(size);
+        db = XMLDatabase.getInstance();
+        reload();
+    }
+
+    private void reload() throws Exception {
+        BenchmarkData.writeXml(file, size);
+        db.getTaskList().clear();
+        db.getData();
+        grew = false;
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeAdded() throws Exception {
+        if (grew) {
+            reload();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteRecursively(dir);
+    }
+
+    private Task nextTask() {
+        List<Task> tasks = db.getTaskList();
+        cursor = cursor + 1 >= tasks.size() ? 0 : cursor + 1;
+        return tasks.get(cursor);
+    }
+
+    @Benchmark
+    public void add() {
+        db.addTask(new Task("Added", "Added by benchmark"));
+        grew = true;
+    }
+
+    @Benchmark
+    public Task lookupById() {
+        cursor = cursor + 1 == ids.size() ? 0 : cursor + 1;
+        UUID id = ids.get(cursor);
+        for (Task task : db.getTaskList()) {
+            if (task.getId().equals(id)) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void editTitle() {
+        db.editTask(nextTask(), 1, "Edited");
+    }
+
+    @Benchmark
+    public void delete() {
+        Task task = nextTask();
+        db.editTask(task, 4, null);
+        db.addTask(task);
+    }
+
+    @Benchmark
+    public void listAll(Blackhole blackhole) throws Exception {
+        XmlTaskStreamer.forEachTask(file, blackhole::consume);
+    }
+}
@@ -3,7 +3,9 @@ import database.DatabaseInitializer;
 import database.DatabaseManager;
 import model.Task;
 import model.TaskDAO;
+import server.TaskHttpServer;
 
+import java.io.IOException;
 import java.sql.SQLException;
 
 public class Main {
@@ -14,10 +16,23 @@ public class Main {
      * Note: the previously used TaskController startup is commented out; this main method
      * performs only the single database status change and then exits.
      *
-     * @param args command-line arguments (ignored)
+     * With {@code --server [port]} the console menu is skipped and the HTTP/JSON API is started
+     * instead; it runs until the process is stopped.
+     *
+     * @param args command-line arguments
      */
-    public static void main(String[] args) throws SQLException {
+    public static void main(String[] args) throws SQLException, IOException {
         DatabaseInitializer.initializeDatabase();
+        if (args.length > 0 && args[0].equals("--server")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : TaskHttpServer.DEFAULT_PORT;
+            TaskHttpServer server = new TaskHttpServer(port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                DatabaseManager.shutdown();
+            }, "task-api-shutdown"));
+            server.start();
+            return;
+        }
        // DatabaseManager.insertSimpleTask("new task");
         TaskController controller = new TaskController();
         controller.run();
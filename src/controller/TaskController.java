@@ -1,14 +1,29 @@
 package controller;
 
+import model.CachingTaskRepository;
 import model.JsonDatabase;
 import model.Task;
 import model.TaskDAO;
+import model.TaskEvent;
+import model.TaskEvents;
+import model.TaskPage;
+import model.TaskSearchIndex;
+import model.TaskStatistics;
+import view.TaskListModel;
 import view.TaskView;
 
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.UUID;
 
 
 import model.XMLDatabase;
@@ -19,15 +34,26 @@ import model.XMLDatabase;
  * Implements the MVC pattern by handling user input and updating the task data.
  */
 public class TaskController {
+    private static final int PAGE_SIZE = 20;
+    private static final int SEARCH_RESULTS = 20;
+    private static final int HISTOGRAM_DAYS = 14;
+
     private final TaskView view;
     private final Scanner scanner;
     private final JsonDatabase db;
     private TaskDAO taskDAO;
+    private final CachingTaskRepository taskRepository;
+    private final TaskSearchIndex searchIndex = new TaskSearchIndex();
+    private final TaskListModel listModel = new TaskListModel();
+    private final TaskStatistics statistics = new TaskStatistics(TaskEvent.Source.DERBY, TaskEvent.Source.CACHE);
 
     enum MenuOption {
         ADD_TASK(1),
         DISPLAY_TASKS(2),
-        EXIT(3);
+        SEARCH_TASKS(3),
+        BULK_ACTIONS(4),
+        STATISTICS(5),
+        EXIT(6);
 
         private final int number;
         MenuOption(int number){
@@ -54,6 +80,38 @@ public class TaskController {
             return number;
         }
     }
+    enum BulkOption {
+        SELECT_TASKS(1),
+        DELETE_COMPLETED(2),
+        DELETE_BY_DATE(3),
+        RETURN_BACK(4);
+
+        private final int number;
+
+        BulkOption(int number) {
+            this.number = number;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+    }
+    enum SelectionAction {
+        MARK_COMPLETED(1),
+        REOPEN(2),
+        DELETE(3),
+        CANCEL(4);
+
+        private final int number;
+
+        SelectionAction(int number) {
+            this.number = number;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+    }
     /**
      * Initializes the TaskController with necessary dependencies.
      * Sets up the database connection, view, and input scanner.
@@ -64,6 +122,36 @@ public class TaskController {
         view = new TaskView();
         scanner = new Scanner(System.in);
         taskDAO = new TaskDAO();
+        taskRepository = new CachingTaskRepository(taskDAO);
+        loadLocalModel();
+    }
+
+    /**
+     * Loads every task of the active backend into the search index, the menu's list model and the
+     * statistics in one pass. From then on all three are patched from {@link TaskEvents} instead
+     * of being rebuilt.
+     */
+    private void loadLocalModel() {
+        long start = System.nanoTime();
+        taskDAO.forEachTask(task -> {
+            searchIndex.index(task);
+            listModel.load(task);
+            statistics.load(task);
+        });
+        System.out.printf("Search index ready: %d tasks in %d ms%n",
+                searchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies a change to Derby, made directly or through the repository, to the local models.
+     * Runs on the thread that made the change. JSON and XML changes are not shown here.
+     */
+    private void onTaskEvent(TaskEvent event) {
+        if (event.source() == TaskEvent.Source.DERBY || event.source() == TaskEvent.Source.CACHE) {
+            listModel.apply(event);
+            searchIndex.apply(event);
+            statistics.apply(event);
+        }
     }
 
     /**
@@ -73,22 +161,35 @@ public class TaskController {
      * <p>Menu choices handled:
      * <ul>
      *   <li>1 — prompt to add a new task (calls addTask())</li>
-     *   <li>2 — show task titles and read a selection (selection currently unused)</li>
-     *   <li>3 — show task titles, prompt delete options, and delete the selected task (calls deleteTask)</li>
-     *   <li>4 — exit the loop and return from the method</li>
+     *   <li>2 — browse task titles page by page and edit the selected task</li>
+     *   <li>3 — search titles and descriptions and edit the selected match</li>
+     *   <li>4 — bulk actions: select several tasks to complete, reopen or delete at once, or
+     *   delete all completed tasks or the tasks created in a date range</li>
+     *   <li>5 — show task counts and tasks created per day over the last two weeks</li>
+     *   <li>6 — exit the loop and return from the method</li>
      * </ul>
      *
      * <p>The method reads numeric input from the controller's Scanner and updates
      * the Database-backed task list via the controller's helper methods. Invalid
      * numeric menu choices result in a printed "Invalid option!" message.
+     * The menu is drawn from the local list model without touching the database; tasks are read
+     * a page at a time.
      */
     public void run() throws SQLException {
+        Runnable unsubscribe = TaskEvents.subscribe(this::onTaskEvent);
+        try {
+            runMenu();
+        } finally {
+            unsubscribe.run();
+        }
+    }
+
+    private void runMenu() {
         boolean isRunning = true;
         while (isRunning) {
-            List<Task> currentTasks = taskDAO.listAllTasks();
-            view.displayMenu(currentTasks);
+            view.displayMenu(listModel);
             // validateIntegerInput is handling non-int input error
-            int firstUserInput = validateIntegerInput(1,3, "Option");
+            int firstUserInput = validateIntegerInput(1,6, "Option");
 
             // new feature for me (enum menu options for a switch statement)
 
@@ -104,8 +205,19 @@ public class TaskController {
                     addTask();
                     break;
                 case DISPLAY_TASKS:
-                    //display all tasks and select 1 task to edit.
-                    editTask(currentTasks);
+                    //display tasks page by page and select 1 task to edit.
+                    browseTasks();
+                    break;
+                case SEARCH_TASKS:
+                    searchTasks();
+                    break;
+                case BULK_ACTIONS:
+                    bulkActions();
+                    break;
+                case STATISTICS:
+                    LocalDate today = LocalDate.now();
+                    view.displayStatistics(statistics.summary(),
+                            statistics.createdPerDay(today.minusDays(HISTOGRAM_DAYS - 1), today));
                     break;
                 case EXIT:
                     isRunning = false;
@@ -145,20 +257,103 @@ public class TaskController {
         }
 
         Task task = new Task(title, description);
-        taskDAO.save(task);
+        try {
+            taskRepository.save(task);
+        } catch (RuntimeException e) {
+            System.out.println("Task could not be saved: " + e.getMessage());
+            return;
+        }
         System.out.println("Task added successfully!");
         System.out.println(task);
     }
 
+//------------------------Browse tasks page by page-----------------------------------
+    /**
+     * Shows task titles one page at a time and lets the user move between pages or pick a task.
+     * Pages are fetched with keyset pagination; the cursor of every visited page is remembered
+     * so "Previous page" does not have to count rows from the start.
+     */
+    private void browseTasks() {
+        List<Task> pageCursors = new ArrayList<>(); // cursor (last task of the page before) per visited page
+        pageCursors.add(null);
+        int pageIndex = 0;
+        while (true) {
+            TaskPage page = taskRepository.listTasksPage(pageCursors.get(pageIndex), PAGE_SIZE);
+            if (page.isEmpty()) {
+                if (pageIndex == 0) {
+                    System.out.println("No tasks!");
+                    return;
+                }
+                pageIndex--; // page emptied since we got here, step back
+                continue;
+            }
+            List<Task> tasks = page.getTasks();
+            int option = tasks.size();
+            int nextPage = page.hasNext() ? ++option : -1;
+            int previousPage = pageIndex > 0 ? ++option : -1;
+            int returnBack = ++option;
+
+            view.displayPageHeader(pageIndex + 1);
+            view.allTitles(tasks);
+            view.pageOptions(nextPage, previousPage, returnBack);
+            int choice = validateIntegerInput(1, returnBack, "Task");
+
+            if (choice == nextPage) {
+                pageIndex++;
+                if (pageCursors.size() == pageIndex) {
+                    pageCursors.add(page.last());
+                } else {
+                    pageCursors.set(pageIndex, page.last());
+                }
+            } else if (choice == previousPage) {
+                pageIndex--;
+            } else if (choice == returnBack) {
+                return;
+            } else {
+                editTask(tasks.get(choice - 1));
+                return;
+            }
+        }
+    }
+
+//------------------------Search tasks-----------------------------------------------
+    /**
+     * Asks for search words and lists the best matching tasks. Every word must appear in the
+     * title or description, either whole or as the start of a longer word.
+     */
+    private void searchTasks() {
+        System.out.print("Search for: ");
+        String query = scanner.nextLine().trim();
+        List<TaskSearchIndex.SearchResult> results = searchIndex.search(query, SEARCH_RESULTS);
+        List<Task> matches = new ArrayList<>(results.size());
+        for (TaskSearchIndex.SearchResult result : results) {
+            Task task = taskRepository.findById(result.id());
+            if (task != null) {
+                matches.add(task);
+            }
+        }
+        if (matches.isEmpty()) {
+            System.out.println("No matching tasks.");
+            return;
+        }
+        view.displaySearchHeader(query, matches.size());
+        view.allTitles(matches);
+        int returnBack = matches.size() + 1;
+        view.pageOptions(-1, -1, returnBack);
+        int choice = validateIntegerInput(1, returnBack, "Task");
+        if (choice != returnBack) {
+            editTask(matches.get(choice - 1));
+        }
+    }
+
 //------------------------Show and edit tasks ---------------------------------------
-    private void editTask(List<Task> currentTasks) {
-        if(currentTasks.isEmpty()){
-            System.out.println("No tasks!");
+    private void editTask(Task selected) {
+        // Page rows carry no description, load the full task for display
+        Task task = taskRepository.findById(selected.getId());
+        if (task == null) {
+            System.out.println("Task no longer exists!");
             return;
         }
-        view.allTitles(currentTasks);
-        int selectedTask = validateIntegerInput(1, currentTasks.size(), "Task");//User selecting task with correct input checking
-        Task task = currentTasks.get(selectedTask -1);
         view.displayTask(task);
         view.editOptions();
         int editOption = validateIntegerInput(1,5,"Option");
@@ -182,7 +377,8 @@ public class TaskController {
                     }
                     System.out.println("Title can not be empty.");
                 }
-                taskDAO.editTitle(task, newTitle);
+                taskRepository.editTitle(task, newTitle);
+                System.out.println("Updated title");
                 break;
 
 
@@ -196,13 +392,16 @@ public class TaskController {
                     }
                     System.out.println("Description can not be empty.");
                 }
-                taskDAO.changeDescription(task, newDescription);
+                taskRepository.changeDescription(task, newDescription);
+                System.out.println("Description updated!");
                 break;
             case CHANGE_STATUS: // Toggle status
-                taskDAO.toggleTaskStatus(task);
+                taskRepository.toggleTaskStatus(task);
+                System.out.println("Status has been changed!");
                 break;
             case DELETE: //Delete
-                taskDAO.deleteTask(task);
+                taskRepository.deleteTask(task);
+                System.out.println("Task deleted successfully!");
                 break;
             case RETURN_BACK:
                break;
@@ -212,6 +411,185 @@ public class TaskController {
 
     }
 
+//------------------------Bulk actions-----------------------------------------------
+    /**
+     * Actions on many tasks at once. Each runs as one set-based operation on the repository
+     * (a single statement or one batch) instead of one update per task.
+     */
+    private void bulkActions() {
+        view.bulkOptions();
+        int choice = validateIntegerInput(1, 4, "Option");
+        BulkOption selected = null;
+        for (BulkOption option : BulkOption.values()) {
+            if (option.getNumber() == choice) {
+                selected = option;
+                break;
+            }
+        }
+        switch (selected) {
+            case SELECT_TASKS:
+                selectTasks();
+                break;
+            case DELETE_COMPLETED:
+                int completed = listModel.completedTasks();
+                if (completed == 0) {
+                    System.out.println("No completed tasks.");
+                } else if (confirm("Delete " + completed + " completed task(s)?")) {
+                    System.out.println(taskRepository.deleteCompleted() + " task(s) deleted.");
+                }
+                break;
+            case DELETE_BY_DATE:
+                LocalDate from = readDate("From date (yyyy-MM-dd): ", null);
+                LocalDate to = readDate("To date, inclusive (yyyy-MM-dd): ", from);
+                if (confirm("Delete all tasks created from " + from + " to " + to + "?")) {
+                    int deleted = taskRepository.deleteCreatedBetween(toDate(from), toDate(to.plusDays(1)));
+                    System.out.println(deleted + " task(s) deleted.");
+                }
+                break;
+            case RETURN_BACK:
+                break;
+            default:
+                System.out.println("Bulk, Invalid option!");
+        }
+    }
+
+    /**
+     * Multi-select mode: pages through the tasks like {@link #browseTasks()}, but the user marks
+     * any number of tasks, across pages, and then applies one action to all of them.
+     * A line of input can hold several task numbers and ranges, e.g. {@code 1 3 5-8}; entering a
+     * selected task's number again unselects it.
+     */
+    private void selectTasks() {
+        Set<UUID> selected = new LinkedHashSet<>();
+        List<Task> pageCursors = new ArrayList<>();
+        pageCursors.add(null);
+        int pageIndex = 0;
+        while (true) {
+            TaskPage page = taskRepository.listTasksPage(pageCursors.get(pageIndex), PAGE_SIZE);
+            if (page.isEmpty()) {
+                if (pageIndex == 0) {
+                    System.out.println("No tasks!");
+                    return;
+                }
+                pageIndex--;
+                continue;
+            }
+            List<Task> tasks = page.getTasks();
+            view.displayPageHeader(pageIndex + 1);
+            view.selectableTitles(tasks, selected);
+            view.selectionHelp(page.hasNext(), pageIndex > 0, selected.size());
+            String input = scanner.nextLine().trim().toLowerCase();
+            if (input.equals("n") && page.hasNext()) {
+                pageIndex++;
+                if (pageCursors.size() == pageIndex) {
+                    pageCursors.add(page.last());
+                } else {
+                    pageCursors.set(pageIndex, page.last());
+                }
+            } else if (input.equals("p") && pageIndex > 0) {
+                pageIndex--;
+            } else if (input.equals("d")) {
+                break;
+            } else if (input.equals("c")) {
+                return;
+            } else if (!toggleSelection(input, tasks, selected)) {
+                System.out.println("Enter task numbers between 1 and " + tasks.size() + ", or one of the letters shown.");
+            }
+        }
+        if (selected.isEmpty()) {
+            System.out.println("No tasks selected.");
+            return;
+        }
+        applyToSelection(selected);
+    }
+
+    /**
+     * Toggles the selection of every task number and range in the input.
+     *
+     * @return false, changing nothing, if any part of the input is not a valid number or range
+     */
+    private boolean toggleSelection(String input, List<Task> tasks, Set<UUID> selected) {
+        List<Integer> numbers = new ArrayList<>();
+        for (String part : input.split("[\\s,]+")) {
+            String[] bounds = part.split("-", 2);
+            try {
+                int first = Integer.parseInt(bounds[0]);
+                int last = bounds.length == 2 ? Integer.parseInt(bounds[1]) : first;
+                if (first < 1 || last > tasks.size() || first > last) {
+                    return false;
+                }
+                for (int number = first; number <= last; number++) {
+                    numbers.add(number);
+                }
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        for (int number : numbers) {
+            UUID id = tasks.get(number - 1).getId();
+            if (!selected.remove(id)) {
+                selected.add(id);
+            }
+        }
+        return true;
+    }
+
+    private void applyToSelection(Set<UUID> selected) {
+        view.selectionActions(selected.size());
+        int choice = validateIntegerInput(1, 4, "Option");
+        SelectionAction action = null;
+        for (SelectionAction option : SelectionAction.values()) {
+            if (option.getNumber() == choice) {
+                action = option;
+                break;
+            }
+        }
+        switch (action) {
+            case MARK_COMPLETED:
+                System.out.println(taskRepository.setCompleted(selected, true) + " task(s) marked completed.");
+                break;
+            case REOPEN:
+                System.out.println(taskRepository.setCompleted(selected, false) + " task(s) reopened.");
+                break;
+            case DELETE:
+                if (confirm("Delete " + selected.size() + " task(s)?")) {
+                    System.out.println(taskRepository.deleteAll(selected) + " task(s) deleted.");
+                }
+                break;
+            case CANCEL:
+                break;
+            default:
+                System.out.println("Selection, Invalid option!");
+        }
+    }
+
+    private boolean confirm(String question) {
+        System.out.print(question + " (y/n): ");
+        return scanner.nextLine().trim().equalsIgnoreCase("y");
+    }
+
+    /**
+     * Reads a date, asking again until it parses and is not before {@code notBefore} (if given).
+     */
+    private LocalDate readDate(String prompt, LocalDate notBefore) {
+        while (true) {
+            System.out.print(prompt);
+            try {
+                LocalDate date = LocalDate.parse(scanner.nextLine().trim());
+                if (notBefore == null || !date.isBefore(notBefore)) {
+                    return date;
+                }
+                System.out.println("The date can not be before " + notBefore + ".");
+            } catch (DateTimeParseException e) {
+                System.out.println("Please enter a date like 2024-01-31.");
+            }
+        }
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
 //-------------------------------------Delete-task------------------------------------
     /**
      * Removes the task at the given 1-based position from the provided task list.
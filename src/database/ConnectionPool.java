@@ -0,0 +1,200 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A small fixed-limit JDBC connection pool.
+ *
+ * Connections are handed out LIFO so the hottest connection (and its prepared statement cache)
+ * is reused first. Every physical connection keeps its own LRU cache of prepared statements, so
+ * calling {@code prepareStatement(sql)} with the same SQL text on a pooled connection re-uses the
+ * already parsed statement. Connections that stay idle longer than the idle timeout are closed by a
+ * background evictor, but never below the configured minimum.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private final String url;
+    private final int maxSize;
+    private final int minIdle;
+    private final long idleTimeoutMillis;
+    private final long acquireTimeoutMillis;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>(); // guarded by this
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    // Metrics
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger total = new AtomicInteger();
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public ConnectionPool(String url, int maxSize, int minIdle, long idleTimeoutMillis,
+                          long acquireTimeoutMillis, int statementCacheSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.url = url;
+        this.maxSize = maxSize;
+        this.minIdle = Math.max(0, Math.min(minIdle, maxSize));
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(maxSize, true);
+
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000L, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new physical connection if none is idle.
+     * Closing the returned connection gives it back to the pool.
+     *
+     * @throws SQLTimeoutException if no connection becomes available within the acquire timeout
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+        if (!acquired) {
+            timeouts.increment();
+            throw new SQLTimeoutException("Timed out after " + acquireTimeoutMillis
+                    + " ms waiting for a pooled connection (max " + maxSize + ")");
+        }
+
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                misses.increment();
+                pooled = new PooledConnection(this, DriverManager.getConnection(url), statementCacheSize);
+                total.incrementAndGet();
+            }
+            borrows.increment();
+            active.incrementAndGet();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private synchronized PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (pooled.isUsable()) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+        return null;
+    }
+
+    /**
+     * Called by a leased connection when the caller closes it.
+     */
+    void release(PooledConnection pooled) {
+        active.decrementAndGet();
+        try {
+            if (closed || !pooled.reset()) {
+                discard(pooled);
+                return;
+            }
+            synchronized (this) {
+                idle.addFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    void recordStatementLookup(boolean hit) {
+        if (hit) {
+            statementHits.increment();
+        } else {
+            statementMisses.increment();
+        }
+    }
+
+    private void recordWait(long nanos) {
+        waitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        synchronized (this) {
+            // Oldest connections sit at the tail of the deque
+            while (idle.size() > minIdle && idle.peekLast().lastUsedMillis() < cutoff) {
+                discard(idle.pollLast());
+                evictions.increment();
+            }
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        total.decrementAndGet();
+        pooled.closePhysical();
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the pool counters.
+     */
+    public PoolMetrics metrics() {
+        int idleCount;
+        synchronized (this) {
+            idleCount = idle.size();
+        }
+        return new PoolMetrics(active.get(), idleCount, total.get(), borrows.sum(), misses.sum(),
+                timeouts.sum(), evictions.sum(), statementHits.sum(), statementMisses.sum(),
+                waitNanos.sum(), maxWaitNanos.get());
+    }
+
+    /**
+     * Closes every idle connection. Connections still in use are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        synchronized (this) {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                discard(pooled);
+            }
+        }
+    }
+}
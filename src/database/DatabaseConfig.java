@@ -2,7 +2,46 @@ package database;
 
 public class DatabaseConfig {
     public static final String DB_NAME = "taskdb";
-    public static final String DB_URL = "jdbc:derby:" + DB_NAME + ";create=true";
+
+    // Deployment mode, -Dtaskapp.db.mode=embedded|server. Embedded (the default) opens the database
+    // inside this JVM, so only one process can use it. Server connects through a Derby Network
+    // Server at taskapp.db.host:taskapp.db.port, starting one in this JVM if none answers and
+    // taskapp.db.autoStart is true, so several app instances can share the tasks table.
+    public static final String DB_MODE = System.getProperty("taskapp.db.mode", "embedded");
+    public static final boolean SERVER_MODE = DB_MODE.equalsIgnoreCase("server");
+    public static final String SERVER_HOST = System.getProperty("taskapp.db.host", "localhost");
+    public static final int SERVER_PORT = Integer.getInteger("taskapp.db.port", 1527);
+    public static final boolean SERVER_AUTO_START =
+            Boolean.parseBoolean(System.getProperty("taskapp.db.autoStart", "true"));
+    public static final long SERVER_START_TIMEOUT_MS = Long.getLong("taskapp.db.startTimeoutMs", 10_000L);
+
+    public static final String EMBEDDED_URL = "jdbc:derby:" + DB_NAME + ";create=true";
+    public static final String SERVER_URL = "jdbc:derby://" + SERVER_HOST + ":" + SERVER_PORT + "/" + DB_NAME + ";create=true";
+    public static final String DB_URL = SERVER_MODE ? SERVER_URL : EMBEDDED_URL;
+    // Shuts down the embedded engine of this JVM; a client never shuts down a shared server's engine
     public static final String SHUTDOWN_URL = "jdbc:derby:;shutdown=true";
-}
 
+    // Startup health check: longest the first connection and probe query may take
+    public static final int HEALTH_CHECK_TIMEOUT_SECONDS = Integer.getInteger("taskapp.db.healthCheckTimeoutSeconds", 5);
+
+    // Connection pool limits, overridable with -Dtaskapp.pool.* system properties
+    public static final int POOL_MAX_SIZE = Integer.getInteger("taskapp.pool.maxSize", 10);
+    public static final int POOL_MIN_IDLE = Integer.getInteger("taskapp.pool.minIdle", 1);
+    public static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("taskapp.pool.idleTimeoutMs", 60_000L);
+    public static final long POOL_ACQUIRE_TIMEOUT_MS = Long.getLong("taskapp.pool.acquireTimeoutMs", 5_000L);
+    public static final int STATEMENT_CACHE_SIZE = Integer.getInteger("taskapp.pool.statementCacheSize", 32);
+
+    // Rows per JDBC batch (and per transaction) for bulk inserts
+    public static final int INSERT_BATCH_SIZE = Integer.getInteger("taskapp.insert.batchSize", 1_000);
+
+    // Write-behind task cache in front of TaskDAO
+    public static final int CACHE_MAX_ENTRIES = Integer.getInteger("taskapp.cache.maxEntries", 10_000);
+    public static final int CACHE_FLUSH_THRESHOLD = Integer.getInteger("taskapp.cache.flushThreshold", 100);
+    public static final long CACHE_FLUSH_INTERVAL_MS = Long.getLong("taskapp.cache.flushIntervalMs", 1_000L);
+
+    // Most AsyncTaskDAO operations allowed to hold a connection at once; defaults to the pool size
+    public static final int ASYNC_MAX_CONCURRENCY = Integer.getInteger("taskapp.async.maxConcurrency", POOL_MAX_SIZE);
+
+    // Attempts a versioned update makes (re-reading the row each time) before reporting a conflict
+    public static final int UPDATE_MAX_ATTEMPTS = Integer.getInteger("taskapp.update.maxAttempts", 3);
+}
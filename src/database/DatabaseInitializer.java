@@ -1,40 +1,132 @@
 package database;
 
 import java.sql.*;
+import java.util.List;
+
+import logging.Log;
 
 public class DatabaseInitializer {
 
+    /**
+     * Ordered schema history. Append new migrations with the next version number; never edit
+     * or renumber one that has shipped, since existing databases record which versions they ran.
+     */
+    static final List<Migration> MIGRATIONS = List.of(
+            Migration.sql(1, "Create tasks table", """
+                CREATE TABLE tasks (
+                    id VARCHAR(36) PRIMARY KEY,
+                    title VARCHAR(255) NOT NULL,
+                    description CLOB,
+                    created_date DATE NOT NULL,
+                    is_completed BOOLEAN DEFAULT FALSE
+                )
+            """),
+            Migration.sql(2, "Index tasks by completion status",
+                    "CREATE INDEX idx_tasks_completed ON tasks (is_completed)"),
+            new Migration(3, "Add 16-byte binary task id", DatabaseInitializer::addBinaryId),
+            Migration.sql(4, "Index tasks by creation date for keyset paging",
+                    "CREATE INDEX idx_tasks_created ON tasks (created_date, id_bin)"),
+            Migration.sql(5, "Add row version for optimistic concurrency",
+                    "ALTER TABLE tasks ADD COLUMN version INT NOT NULL DEFAULT 0"),
+            // Derby cannot change a column's type in place, so the column is rebuilt under the same
+            // name; existing rows get midnight of their date
+            Migration.sql(6, "Store creation time as TIMESTAMP",
+                    "ALTER TABLE tasks ADD COLUMN created_ts TIMESTAMP",
+                    "UPDATE tasks SET created_ts = TIMESTAMP(created_date, '00:00:00')",
+                    "ALTER TABLE tasks ALTER COLUMN created_ts NOT NULL",
+                    "DROP INDEX idx_tasks_created",
+                    "ALTER TABLE tasks DROP COLUMN created_date",
+                    "RENAME COLUMN tasks.created_ts TO created_date",
+                    "CREATE INDEX idx_tasks_created ON tasks (created_date, id_bin)")
+    );
+
+    // Instances sharing a Network Server may migrate at the same moment; the loser retries
+    private static final int MIGRATE_ATTEMPTS = 3;
+
     public static void initializeDatabase() {
-        String createTaskTable = """
-            CREATE TABLE tasks (
-                id VARCHAR(36) PRIMARY KEY,
-                title VARCHAR(255) NOT NULL,
-                description CLOB,
-                created_date DATE NOT NULL,
-                is_completed BOOLEAN DEFAULT FALSE
-            )
-        """;
-
-        try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement()) {
-
-            if (!tableExists(conn, "TASKS")) {
-                stmt.executeUpdate(createTaskTable);
-                System.out.println("✓ Tasks table created");
-            } else {
-                System.out.println("✓ Tasks table already exists");
+        checkHealth();
+        SchemaMigrator migrator = new SchemaMigrator(MIGRATIONS);
+
+        for (int attempt = 1; ; attempt++) {
+            try (Connection conn = DatabaseManager.getConnection()) {
+
+                if (migrator.currentVersion(conn) == 0 && SchemaMigrator.tableExists(conn, "TASKS")) {
+                    // Database created before schema versioning: adopt its table as version 1
+                    migrator.baseline(conn, 1);
+                    Log.info("✓ Tasks table already exists");
+                }
+                int version = migrator.migrate(conn);
+                Log.info("✓ Database schema at version " + version);
+                return;
+
+            } catch (SQLException e) {
+                if (DatabaseConfig.SERVER_MODE && attempt < MIGRATE_ATTEMPTS) {
+                    Log.warn("Schema migration attempt %d failed, retrying: %s", attempt, e.getMessage());
+                    sleepBeforeRetry(attempt);
+                    continue;
+                }
+                Log.error("Database initialization failed: " + e.getMessage());
+                throw new RuntimeException("Cannot initialize database", e);
             }
+        }
+    }
 
+    /**
+     * Fails fast with a clear message when the database cannot be reached, instead of on the
+     * first query the user runs.
+     */
+    private static void checkHealth() {
+        if (!DatabaseConfig.SERVER_MODE && !DatabaseConfig.DB_MODE.equalsIgnoreCase("embedded")) {
+            throw new IllegalStateException("Unknown taskapp.db.mode '" + DatabaseConfig.DB_MODE
+                    + "', expected embedded or server");
+        }
+        try {
+            long millis = DatabaseManager.checkHealth();
+            Log.info("✓ Database reachable (%s, %s, %d ms)", DatabaseConfig.DB_MODE, DatabaseConfig.DB_URL, millis);
         } catch (SQLException e) {
-            System.err.println("Database initialization failed: " + e.getMessage());
-            throw new RuntimeException("Cannot initialize database", e);
+            Log.error("Database health check failed (" + DatabaseConfig.DB_MODE + ", " + DatabaseConfig.DB_URL + "): "
+                    + e.getMessage());
+            throw new RuntimeException("Database not reachable at " + DatabaseConfig.DB_URL, e);
+        }
+    }
+
+    private static void sleepBeforeRetry(int attempt) {
+        try {
+            Thread.sleep(100L * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during database initialization", e);
         }
     }
 
-    private static boolean tableExists(Connection conn, String tableName) throws SQLException {
-        DatabaseMetaData meta = conn.getMetaData();
-        try (ResultSet rs = meta.getTables(null, null, tableName, new String[]{"TABLE"})) {
-            return rs.next();
+    /**
+     * Adds {@code id_bin}, fills it from the existing string ids and makes it a unique, non-null key.
+     */
+    private static void addBinaryId(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE tasks ADD COLUMN id_bin CHAR(16) FOR BIT DATA");
+        }
+        try (PreparedStatement select = conn.prepareStatement("SELECT id FROM tasks");
+             PreparedStatement update = conn.prepareStatement("UPDATE tasks SET id_bin = ? WHERE id = ?");
+             ResultSet rs = select.executeQuery()) {
+            int pending = 0;
+            while (rs.next()) {
+                String id = rs.getString(1);
+                update.setBytes(1, UuidBytes.toBytes(java.util.UUID.fromString(id)));
+                update.setString(2, id);
+                update.addBatch();
+                if (++pending == DatabaseConfig.INSERT_BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("ALTER TABLE tasks ALTER COLUMN id_bin NOT NULL");
+            stmt.executeUpdate("CREATE UNIQUE INDEX idx_tasks_id_bin ON tasks (id_bin)");
         }
     }
 }
@@ -3,42 +3,146 @@ package database;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import logging.Log;
 
 public class DatabaseManager {
 
+    private static volatile ConnectionPool pool;
+    private static final List<Runnable> shutdownListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Borrows a connection from the shared pool. Closing the connection returns it to the pool,
+     * so callers keep using try-with-resources exactly as with a plain DriverManager connection.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DatabaseConfig.DB_URL);
+        return getPool().getConnection();
+    }
+
+    /**
+     * Returns the shared connection pool, creating it on first access. In server mode this first
+     * attaches to, or starts, the Derby Network Server.
+     */
+    public static ConnectionPool getPool() {
+        if (pool == null) {
+            synchronized (DatabaseManager.class) {
+                if (pool == null) {
+                    if (DatabaseConfig.SERVER_MODE) {
+                        // A client connection to an unreachable server otherwise waits for the OS
+                        DriverManager.setLoginTimeout(DatabaseConfig.HEALTH_CHECK_TIMEOUT_SECONDS);
+                        try {
+                            DerbyServer.ensureRunning();
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e.getMessage(), e);
+                        }
+                    }
+                    pool = new ConnectionPool(DatabaseConfig.DB_URL,
+                            DatabaseConfig.POOL_MAX_SIZE,
+                            DatabaseConfig.POOL_MIN_IDLE,
+                            DatabaseConfig.POOL_IDLE_TIMEOUT_MS,
+                            DatabaseConfig.POOL_ACQUIRE_TIMEOUT_MS,
+                            DatabaseConfig.STATEMENT_CACHE_SIZE);
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Opens a connection and runs a trivial query, within
+     * {@link DatabaseConfig#HEALTH_CHECK_TIMEOUT_SECONDS}.
+     *
+     * @return how long the round trip took, in milliseconds
+     * @throws SQLException if the database cannot be reached or does not answer in time
+     */
+    public static long checkHealth() throws SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.setQueryTimeout(DatabaseConfig.HEALTH_CHECK_TIMEOUT_SECONDS);
+            try (ResultSet rs = stmt.executeQuery("VALUES 1")) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Unexpected health check result");
+                }
+            }
+        } catch (IllegalStateException e) {
+            // getPool() wraps a failure to reach the Network Server
+            throw e.getCause() instanceof SQLException cause ? cause : new SQLException(e.getMessage(), "08001", e);
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    public static PoolMetrics getPoolMetrics() {
+        return getPool().metrics();
+    }
+
+    /**
+     * Registers an action that runs at the start of {@link #shutdown()}, while connections are
+     * still available. Used by write-behind caches to flush pending changes.
+     */
+    public static void addShutdownListener(Runnable listener) {
+        shutdownListeners.add(listener);
+    }
+
+    public static void removeShutdownListener(Runnable listener) {
+        shutdownListeners.remove(listener);
     }
 
     public static void shutdown() {
-        try {
-            DriverManager.getConnection(DatabaseConfig.SHUTDOWN_URL);
-        } catch (SQLException e) {
-            if (!"XJ015".equals(e.getSQLState())) {
-                System.err.println("Shutdown error: " + e.getMessage());
+        for (Runnable listener : shutdownListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                Log.warn("Shutdown listener failed: " + e.getMessage());
+            }
+        }
+        synchronized (DatabaseManager.class) {
+            if (pool != null) {
+                Log.info(pool.metrics().toString());
+                pool.close();
+                pool = null;
+            }
+        }
+        if (DatabaseConfig.SERVER_MODE) {
+            // Other instances may still use the server; only stop one this JVM started
+            DerbyServer.stopIfStartedHere();
+        } else {
+            try {
+                DriverManager.getConnection(DatabaseConfig.SHUTDOWN_URL);
+            } catch (SQLException e) {
+                if (!"XJ015".equals(e.getSQLState())) {
+                    Log.error("Shutdown error: " + e.getMessage());
+                }
             }
         }
+        Log.flush(); // the JVM may exit right after this
     }
 
     // New method to insert a simple string as a task
     public static void insertSimpleTask(String title) {
-        String insertSQL = "INSERT INTO tasks (id, title, created_date, is_completed) VALUES (?, ?, CURRENT_DATE, FALSE)";
+        String insertSQL = "INSERT INTO tasks (id, id_bin, title, created_date, is_completed) VALUES (?, ?, ?, CURRENT_TIMESTAMP, FALSE)";
         
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
             
-            pstmt.setString(1, UUID.randomUUID().toString());
-            pstmt.setString(2, title);
+            UUID id = UUID.randomUUID();
+            pstmt.setString(1, id.toString());
+            pstmt.setBytes(2, UuidBytes.toBytes(id));
+            pstmt.setString(3, title);
             
             int rowsAffected = pstmt.executeUpdate();
             if (rowsAffected > 0) {
-                System.out.println("✓ Task inserted successfully: " + title);
+                Log.debug("✓ Task inserted successfully: " + title);
             }
             
         } catch (SQLException e) {
-            System.err.println("Error inserting task: " + e.getMessage());
+            Log.error("Error inserting task: " + e.getMessage());
         }
     }
 }
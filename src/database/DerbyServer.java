@@ -0,0 +1,184 @@
+package database;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+
+import logging.Log;
+import org.apache.derby.drda.NetworkServerControl;
+
+/**
+ * Attaches to, or starts, the Derby Network Server used in server mode
+ * ({@code -Dtaskapp.db.mode=server}, see {@link DatabaseConfig}).
+ *
+ * {@link #ensureRunning()} pings the configured host and port. If a server answers, the app only
+ * connects to it as a client. Otherwise, when auto-start is on, a server is started inside this
+ * JVM and other app instances attach to it; it stops when this JVM shuts the database down, so
+ * the instance that started it should be the last to exit. For a server that outlives every app
+ * instance, run this class on its own:
+ * <pre>
+ * java -cp target/classes:&lt;deps&gt; database.DerbyServer
+ * </pre>
+ * The database files live in {@code derby.system.home} (the working directory by default) of
+ * whichever JVM runs the server.
+ */
+public final class DerbyServer {
+
+    private static NetworkServerControl control; // guarded by DerbyServer.class, set if started here
+
+    private DerbyServer() {
+    }
+
+    /**
+     * Makes sure a Network Server answers at the configured address, starting one in this JVM if
+     * none does and auto-start is on.
+     *
+     * @throws SQLException if no server answers and none could be started within the start timeout
+     */
+    public static synchronized void ensureRunning() throws SQLException {
+        if (ping()) {
+            Log.info("✓ Attached to Derby Network Server at %s:%d", DatabaseConfig.SERVER_HOST, DatabaseConfig.SERVER_PORT);
+            return;
+        }
+        if (!DatabaseConfig.SERVER_AUTO_START) {
+            throw new SQLException("No Derby Network Server at " + DatabaseConfig.SERVER_HOST + ":"
+                    + DatabaseConfig.SERVER_PORT + " and taskapp.db.autoStart is false", "08001");
+        }
+        start();
+        Log.info("✓ Started Derby Network Server on %s:%d", DatabaseConfig.SERVER_HOST, DatabaseConfig.SERVER_PORT);
+    }
+
+    /**
+     * @return true if a Network Server answers at the configured host and port
+     */
+    public static boolean ping() {
+        try {
+            newControl().ping();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return true if the server this app uses runs inside this JVM
+     */
+    public static synchronized boolean isStartedHere() {
+        return control != null;
+    }
+
+    private static void start() throws SQLException {
+        long deadline = System.currentTimeMillis() + DatabaseConfig.SERVER_START_TIMEOUT_MS;
+        try {
+            NetworkServerControl server = newControl();
+            // The server's console output goes to the app log at debug level
+            server.start(new PrintWriter(new LogWriter(), true));
+            while (!ping()) {
+                if (System.currentTimeMillis() > deadline) {
+                    server.shutdown();
+                    throw new SQLException("Derby Network Server did not answer within "
+                            + DatabaseConfig.SERVER_START_TIMEOUT_MS + " ms", "08001");
+                }
+                Thread.sleep(50);
+            }
+            control = server;
+        } catch (SQLException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while starting the Derby Network Server", "08001", e);
+        } catch (Exception e) {
+            // Another instance may have started one on the same port in the meantime
+            if (ping()) {
+                Log.info("✓ Attached to Derby Network Server at %s:%d", DatabaseConfig.SERVER_HOST, DatabaseConfig.SERVER_PORT);
+                return;
+            }
+            throw new SQLException("Cannot start Derby Network Server: " + e.getMessage(), "08001", e);
+        }
+    }
+
+    /**
+     * Stops the Network Server if this JVM started it and shuts down the embedded engine it ran
+     * on. Does nothing for a server started elsewhere, which other instances may still be using.
+     */
+    public static synchronized void stopIfStartedHere() {
+        if (control == null) {
+            return;
+        }
+        try {
+            control.shutdown();
+            Log.info("✓ Derby Network Server stopped");
+        } catch (Exception e) {
+            Log.warn("Stopping Derby Network Server failed: " + e.getMessage());
+        } finally {
+            control = null;
+        }
+        try {
+            DriverManager.getConnection(DatabaseConfig.SHUTDOWN_URL);
+        } catch (SQLException e) {
+            if (!"XJ015".equals(e.getSQLState())) {
+                Log.error("Shutdown error: " + e.getMessage());
+            }
+        }
+    }
+
+    private static NetworkServerControl newControl() throws Exception {
+        return new NetworkServerControl(InetAddress.getByName(DatabaseConfig.SERVER_HOST), DatabaseConfig.SERVER_PORT);
+    }
+
+    /**
+     * Runs a standalone Network Server until the process is stopped.
+     */
+    public static void main(String[] args) throws Exception {
+        if (ping()) {
+            System.out.println("A Derby Network Server is already running on "
+                    + DatabaseConfig.SERVER_HOST + ":" + DatabaseConfig.SERVER_PORT);
+            return;
+        }
+        start();
+        System.out.println("Derby Network Server listening on " + DatabaseConfig.SERVER_HOST + ":"
+                + DatabaseConfig.SERVER_PORT + ", press Ctrl+C to stop");
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stopIfStartedHere();
+            Log.flush();
+            stopped.countDown();
+        }, "derby-server-shutdown"));
+        stopped.await();
+    }
+
+    /**
+     * Forwards the server's console messages to {@link Log}, one line at a time.
+     */
+    private static final class LogWriter extends Writer {
+        private final StringBuilder line = new StringBuilder();
+
+        @Override
+        public synchronized void write(char[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                char c = buffer[i];
+                if (c == '\n') {
+                    flush();
+                } else if (c != '\r') {
+                    line.append(c);
+                }
+            }
+        }
+
+        @Override
+        public synchronized void flush() {
+            if (!line.isEmpty()) {
+                Log.debug("Derby server: %s", line);
+                line.setLength(0);
+            }
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * One versioned schema change. Migrations are applied in ascending version order by
+ * {@link SchemaMigrator}, each in its own transaction, and recorded in {@code schema_version}.
+ */
+public final class Migration {
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    private final int version;
+    private final String description;
+    private final Step step;
+
+    public Migration(int version, String description, Step step) {
+        this.version = version;
+        this.description = description;
+        this.step = step;
+    }
+
+    /**
+     * Creates a migration that runs the given DDL/DML statements in order.
+     */
+    public static Migration sql(int version, String description, String... statements) {
+        return new Migration(version, description, conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : statements) {
+                    stmt.executeUpdate(sql);
+                }
+            }
+        });
+    }
+
+    public int getVersion() {return version;}
+    public String getDescription() {return description;}
+
+    void apply(Connection conn) throws SQLException {
+        step.apply(conn);
+    }
+}
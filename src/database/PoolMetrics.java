@@ -0,0 +1,34 @@
+package database;
+
+/**
+ * Point-in-time snapshot of {@link ConnectionPool} counters.
+ *
+ * @param active               connections currently borrowed
+ * @param idle                 connections waiting in the pool
+ * @param total                physical connections currently open
+ * @param borrows              successful {@code getConnection()} calls
+ * @param misses               borrows that had to open a new physical connection
+ * @param timeouts             borrows that gave up waiting for a free connection
+ * @param evictions            idle connections closed by the evictor
+ * @param statementCacheHits   {@code prepareStatement} calls served from the statement cache
+ * @param statementCacheMisses {@code prepareStatement} calls that had to parse the SQL
+ * @param totalWaitNanos       time spent waiting for a free connection, summed over all borrows
+ * @param maxWaitNanos         longest single wait for a free connection
+ */
+public record PoolMetrics(int active, int idle, int total, long borrows, long misses, long timeouts,
+                          long evictions, long statementCacheHits, long statementCacheMisses,
+                          long totalWaitNanos, long maxWaitNanos) {
+
+    public double averageWaitMillis() {
+        long attempts = borrows + timeouts;
+        return attempts == 0 ? 0.0 : totalWaitNanos / 1_000_000.0 / attempts;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pool: active=%d idle=%d total=%d borrows=%d misses=%d timeouts=%d evictions=%d "
+                        + "stmtHits=%d stmtMisses=%d avgWait=%.3fms maxWait=%.3fms",
+                active, idle, total, borrows, misses, timeouts, evictions, statementCacheHits,
+                statementCacheMisses, averageWaitMillis(), maxWaitNanos / 1_000_000.0);
+    }
+}
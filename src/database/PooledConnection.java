@@ -0,0 +1,207 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A physical connection owned by {@link ConnectionPool}, together with its prepared statement cache.
+ *
+ * Callers never see this object directly: {@link #lease()} hands out a {@link Connection} proxy whose
+ * {@code close()} returns the connection to the pool, and whose single-argument
+ * {@code prepareStatement(sql)} is served from the cache. Cached statements are likewise wrapped so
+ * that {@code close()} only clears their parameters.
+ */
+class PooledConnection {
+
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final Map<String, PreparedStatement> statementCache;
+    private final Set<String> statementsInUse = new HashSet<>();
+    private volatile long lastUsedMillis = System.currentTimeMillis();
+
+    PooledConnection(ConnectionPool pool, Connection physical, int cacheSize) {
+        this.pool = pool;
+        this.physical = physical;
+        this.statementCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= cacheSize || statementsInUse.contains(eldest.getKey())) {
+                    return false;
+                }
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    Connection lease() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Lease());
+    }
+
+    long lastUsedMillis() {
+        return lastUsedMillis;
+    }
+
+    boolean isUsable() {
+        try {
+            return !physical.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Puts the connection back into its default state before it returns to the idle list.
+     *
+     * @return false if the connection is broken and should be discarded
+     */
+    boolean reset() {
+        lastUsedMillis = System.currentTimeMillis();
+        statementsInUse.clear();
+        try {
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            return !physical.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closePhysical() {
+        try {
+            physical.close();
+        } catch (SQLException ignored) {
+            // The connection is being thrown away anyway
+        }
+    }
+
+    private PreparedStatement prepareCached(Connection lease, String sql) throws SQLException {
+        if (statementsInUse.contains(sql)) {
+            // Same SQL is already open on this connection (nested use): hand out a private statement
+            pool.recordStatementLookup(false);
+            return physical.prepareStatement(sql);
+        }
+        PreparedStatement statement = statementCache.get(sql);
+        boolean hit = statement != null && !statement.isClosed();
+        pool.recordStatementLookup(hit);
+        statementsInUse.add(sql);
+        if (!hit) {
+            statement = physical.prepareStatement(sql);
+            statementCache.put(sql, statement);
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new CachedStatement(lease, sql, statement));
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // Statement was evicted from the cache; nothing else holds it
+        }
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    //---------------------- Connection handed out to callers -------------------------------------
+    private final class Lease implements InvocationHandler {
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (method.getName().equals("prepareStatement") && args.length == 1) {
+                return prepareCached((Connection) proxy, (String) args[0]);
+            }
+            return forward(physical, method, args);
+        }
+    }
+
+    //---------------------- Cached statement handed out to callers --------------------------------
+    private final class CachedStatement implements InvocationHandler {
+        private final Connection lease;
+        private final String sql;
+        private final PreparedStatement statement;
+        private boolean closed;
+
+        CachedStatement(Connection lease, String sql, PreparedStatement statement) {
+            this.lease = lease;
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        statementsInUse.remove(sql);
+                        // Statement.close() closes the current result set; the physical statement stays open
+                        ResultSet resultSet = statement.getResultSet();
+                        if (resultSet != null) {
+                            resultSet.close();
+                        }
+                        statement.clearParameters();
+                        statement.clearBatch();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || statement.isClosed();
+                case "getConnection":
+                    return lease;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + sql + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            return forward(statement, method, args);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import logging.Log;
+
+/**
+ * Applies pending {@link Migration}s and records each applied version in the {@code schema_version} table.
+ */
+public class SchemaMigrator {
+
+    private static final String CREATE_VERSION_TABLE = """
+            CREATE TABLE schema_version (
+                version INT PRIMARY KEY,
+                description VARCHAR(255) NOT NULL,
+                applied_at TIMESTAMP NOT NULL
+            )
+        """;
+
+    private final List<Migration> migrations;
+
+    public SchemaMigrator(List<Migration> migrations) {
+        List<Migration> sorted = new ArrayList<>(migrations);
+        sorted.sort(Comparator.comparingInt(Migration::getVersion));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getVersion() == sorted.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("Duplicate migration version " + sorted.get(i).getVersion());
+            }
+        }
+        this.migrations = sorted;
+    }
+
+    /**
+     * Brings the schema up to the newest migration version.
+     *
+     * @return the schema version after migrating
+     */
+    public int migrate(Connection conn) throws SQLException {
+        ensureVersionTable(conn);
+        int current = currentVersion(conn);
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            for (Migration migration : migrations) {
+                if (migration.getVersion() <= current) {
+                    continue;
+                }
+                try {
+                    migration.apply(conn);
+                    recordVersion(conn, migration);
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw new SQLException("Migration " + migration.getVersion() + " ("
+                            + migration.getDescription() + ") failed: " + e.getMessage(), e);
+                }
+                current = migration.getVersion();
+                Log.info("✓ Schema migrated to version " + current + ": " + migration.getDescription());
+            }
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+        return current;
+    }
+
+    /**
+     * Marks a migration as applied without running it, used to adopt tables created before versioning existed.
+     */
+    public void baseline(Connection conn, int version) throws SQLException {
+        ensureVersionTable(conn);
+        if (currentVersion(conn) >= version) {
+            return;
+        }
+        for (Migration migration : migrations) {
+            if (migration.getVersion() == version) {
+                recordVersion(conn, migration);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Unknown migration version " + version);
+    }
+
+    public int currentVersion(Connection conn) throws SQLException {
+        if (!tableExists(conn, "SCHEMA_VERSION")) {
+            return 0;
+        }
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void ensureVersionTable(Connection conn) throws SQLException {
+        if (!tableExists(conn, "SCHEMA_VERSION")) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(CREATE_VERSION_TABLE);
+            }
+        }
+    }
+
+    private static void recordVersion(Connection conn, Migration migration) throws SQLException {
+        String sql = "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, migration.getVersion());
+            pstmt.setString(2, migration.getDescription());
+            pstmt.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+            pstmt.executeUpdate();
+        }
+    }
+
+    static boolean tableExists(Connection conn, String tableName) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getTables(null, null, tableName, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package logging;
+
+/**
+ * Log severities, lowest first. A message is kept when its level is at or above {@link Log#LEVEL}.
+ */
+public enum Level {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR
+}
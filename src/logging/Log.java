@@ -0,0 +1,165 @@
+package logging;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous, level-filtered logging for the storage layer.
+ *
+ * A call below the configured level returns after one comparison. Any other call puts the message
+ * in a {@link LogRingBuffer} and returns without waiting for I/O; a daemon thread drains the buffer,
+ * formats each entry and writes it to the console (WARN and ERROR to stderr) or to a log file. The
+ * format variants defer {@link String#format} to that thread. When producers outrun the writer the
+ * buffer fills up and further messages are dropped and counted instead of blocking the caller; the
+ * count is reported in the log once there is room again.
+ *
+ * Settings: {@code -Dtaskapp.log.level} (DEBUG, INFO, WARN, ERROR; default INFO),
+ * {@code -Dtaskapp.log.bufferSize} (default 8192 entries) and {@code -Dtaskapp.log.file}
+ * (default: console).
+ */
+public final class Log {
+
+    public static final Level LEVEL = Level.valueOf(System.getProperty("taskapp.log.level", "INFO").toUpperCase());
+    public static final int BUFFER_SIZE = Integer.getInteger("taskapp.log.bufferSize", 8_192);
+    public static final String FILE = System.getProperty("taskapp.log.file");
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    private static final LogRingBuffer BUFFER = new LogRingBuffer(BUFFER_SIZE);
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final PrintStream OUT;
+    private static final PrintStream ERR;
+    private static final Thread WRITER;
+    private static volatile long written; // entries drained so far, read by flush()
+
+    static {
+        PrintStream file = null;
+        if (FILE != null) {
+            try {
+                file = new PrintStream(new FileOutputStream(FILE, true), false, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                System.err.println("Could not open log file " + FILE + ", logging to console: " + e.getMessage());
+            }
+        }
+        OUT = file != null ? file : System.out;
+        ERR = file != null ? file : System.err;
+        WRITER = new Thread(Log::drainLoop, "log-writer");
+        WRITER.setDaemon(true);
+        WRITER.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "log-final-flush"));
+    }
+
+    private Log() {
+    }
+
+    //------------------------------ Logging ----------------------------------------------
+    public static boolean isEnabled(Level level) {
+        return level.compareTo(LEVEL) >= 0;
+    }
+
+    public static void debug(String message) {
+        log(Level.DEBUG, message, null, null);
+    }
+
+    public static void debug(String format, Object... args) {
+        log(Level.DEBUG, format, args, null);
+    }
+
+    public static void info(String message) {
+        log(Level.INFO, message, null, null);
+    }
+
+    public static void info(String format, Object... args) {
+        log(Level.INFO, format, args, null);
+    }
+
+    public static void warn(String message) {
+        log(Level.WARN, message, null, null);
+    }
+
+    public static void warn(String format, Object... args) {
+        log(Level.WARN, format, args, null);
+    }
+
+    public static void error(String message) {
+        log(Level.ERROR, message, null, null);
+    }
+
+    public static void error(String message, Throwable error) {
+        log(Level.ERROR, message, null, error);
+    }
+
+    private static void log(Level level, String message, Object[] args, Throwable error) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        if (!BUFFER.offer(level, message, args, error)) {
+            DROPPED.increment();
+        }
+    }
+
+    /**
+     * @return how many messages were dropped because the buffer was full
+     */
+    public static long dropped() {
+        return DROPPED.sum();
+    }
+
+    /**
+     * Waits (at most a second) until everything logged before this call has been written.
+     */
+    public static void flush() {
+        long target = BUFFER.published();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (written < target && System.nanoTime() < deadline) {
+            LockSupport.unpark(WRITER);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    //------------------------------ Writer thread ----------------------------------------
+    private static void drainLoop() {
+        long reportedDrops = 0;
+        while (true) {
+            int drained = BUFFER.drain(Log::write);
+            long drops = DROPPED.sum();
+            if (drops > reportedDrops) {
+                ERR.println(TIME.format(Instant.now()) + " WARN  [log-writer] "
+                        + (drops - reportedDrops) + " log messages dropped, buffer full");
+                reportedDrops = drops;
+            }
+            if (drained > 0) {
+                OUT.flush();
+                ERR.flush();
+                written += drained;
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private static void write(LogRingBuffer.Entry entry) {
+        String text;
+        try {
+            text = entry.args == null ? entry.message : String.format(entry.message, entry.args);
+        } catch (RuntimeException e) {
+            text = entry.message + " (bad format: " + e + ")";
+        }
+        PrintStream stream = entry.level.compareTo(Level.WARN) >= 0 ? ERR : OUT;
+        stream.printf("%s %-5s [%s] %s%n", TIME.format(Instant.ofEpochMilli(entry.timeMillis)), entry.level,
+                entry.thread, text);
+        if (entry.error != null) {
+            entry.error.printStackTrace(stream);
+        }
+    }
+}
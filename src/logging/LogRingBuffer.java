@@ -0,0 +1,106 @@
+package logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer of log entries with many producers and one consumer.
+ *
+ * Producers claim a slot with one CAS on the tail counter and publish it by advancing the slot's
+ * sequence number (Vyukov's bounded queue). The slots are preallocated and reused, so enqueuing a
+ * message never allocates and never blocks; when the buffer is full {@link #offer} returns false at
+ * once and the caller drops the message. Only the drain thread may call {@link #drain}.
+ */
+final class LogRingBuffer {
+
+    static final class Entry {
+        Level level;
+        long timeMillis;
+        String thread;
+        String message;
+        Object[] args;   // format arguments, or null when message is final text
+        Throwable error;
+    }
+
+    private final Entry[] entries;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // consumer only
+
+    LogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1; // next power of two
+        entries = new Entry[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            entries[i] = new Entry();
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return false if the buffer was full and the entry was not added
+     */
+    boolean offer(Level level, String message, Object[] args, Throwable error) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    Entry entry = entries[index];
+                    entry.level = level;
+                    entry.timeMillis = System.currentTimeMillis();
+                    entry.thread = Thread.currentThread().getName();
+                    entry.message = message;
+                    entry.args = args;
+                    entry.error = error;
+                    sequences.lazySet(index, position + 1); // publish to the consumer
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false; // the consumer has not freed this slot yet: full
+            } else {
+                position = tail.get(); // another producer took this slot
+            }
+        }
+    }
+
+    /**
+     * Hands every published entry to {@code consumer} in order and frees its slot.
+     *
+     * @return the number of entries drained
+     */
+    int drain(Consumer<Entry> consumer) {
+        int drained = 0;
+        while (true) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                return drained;
+            }
+            Entry entry = entries[index];
+            consumer.accept(entry);
+            entry.message = null;
+            entry.args = null;
+            entry.error = null;
+            entry.thread = null;
+            sequences.lazySet(index, head + entries.length); // free for the producer one lap ahead
+            head++;
+            drained++;
+        }
+    }
+
+    /**
+     * @return the number of entries claimed by producers so far
+     */
+    long published() {
+        return tail.get();
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+}
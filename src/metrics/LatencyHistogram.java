@@ -0,0 +1,175 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, allocation-free latency histogram for one operation.
+ *
+ * Durations in nanoseconds are counted in log-linear buckets: every power of two is split into
+ * 16 equal sub-buckets, so a reported percentile is at most 1/16 (6.25%) above the true value, and
+ * 640 buckets cover everything from 1 ns to about two and a half hours. {@link #record(long)} is one
+ * array increment plus two adder updates and a max CAS; it allocates nothing and takes no lock, so
+ * it can stay on in production. Percentiles are computed only when a {@link #snapshot()} is taken.
+ */
+public class LatencyHistogram implements LatencyHistogramMBean {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 42;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+    private static final long MAX_TRACKABLE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private final String store;
+    private final String operation;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    LatencyHistogram(String store, String operation) {
+        this.store = store;
+        this.operation = operation;
+    }
+
+    public String store() {
+        return store;
+    }
+
+    public String operation() {
+        return operation;
+    }
+
+    //------------------------------ Recording --------------------------------------------
+    /**
+     * Records one completed operation. Typical use:
+     * <pre>
+     * long start = System.nanoTime();
+     * try { ... } catch (...) { LATENCY.failed(); ... } finally { LATENCY.record(System.nanoTime() - start); }
+     * </pre>
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_TRACKABLE);
+        counts.incrementAndGet(bucketIndex(value));
+        count.increment();
+        totalNanos.add(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Counts a failed operation. The failure's duration is still passed to {@link #record(long)}.
+     */
+    public void failed() {
+        errors.increment();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * @return the largest value that falls into this bucket
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    //------------------------------ Reading ----------------------------------------------
+    /**
+     * Reads the buckets once and computes the summary. Recording may continue meanwhile, so the
+     * figures are consistent to within the operations that completed during the read.
+     */
+    public LatencySnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        long sum = totalNanos.sum();
+        long max = maxNanos.get();
+        return new LatencySnapshot(store, operation, total, errors.sum(),
+                total == 0 ? 0 : (double) sum / total,
+                percentile(copy, total, 0.50, max), percentile(copy, total, 0.99, max),
+                percentile(copy, total, 0.999, max), max);
+    }
+
+    private static long percentile(long[] buckets, long total, double quantile, long max) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Clears all counts. Operations recorded while the reset runs may be partly kept.
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+        errors.reset();
+        maxNanos.set(0);
+    }
+
+    //------------------------------ JMX attributes ---------------------------------------
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return snapshot().meanNanos() / 1_000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return snapshot().p50Nanos() / 1_000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return snapshot().p99Nanos() / 1_000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return snapshot().p999Nanos() / 1_000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return maxNanos.get() / 1_000.0;
+    }
+}
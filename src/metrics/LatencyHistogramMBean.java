@@ -0,0 +1,24 @@
+package metrics;
+
+/**
+ * JMX view of one {@link LatencyHistogram}, registered as
+ * {@code taskapp:type=Latency,store=<store>,operation=<operation>}. Latencies are in microseconds.
+ */
+public interface LatencyHistogramMBean {
+
+    long getCount();
+
+    long getErrors();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    void reset();
+}
@@ -0,0 +1,15 @@
+package metrics;
+
+/**
+ * Point-in-time summary of a {@link LatencyHistogram}. All durations are in nanoseconds.
+ */
+public record LatencySnapshot(String store, String operation, long count, long errors, double meanNanos,
+                              long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+
+    @Override
+    public String toString() {
+        return String.format("%-14s %-22s count=%d errors=%d mean=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+                store, operation, count, errors, meanNanos / 1_000, p50Nanos / 1_000.0, p99Nanos / 1_000.0,
+                p999Nanos / 1_000.0, maxNanos / 1_000.0);
+    }
+}
@@ -0,0 +1,115 @@
+package metrics;
+
+import logging.Log;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide registry of operation latency histograms.
+ *
+ * Stores ask for their histograms once, into static final fields, and record into them directly:
+ * <pre>
+ * private static final LatencyHistogram SAVE_LATENCY = Metrics.histogram("TaskDAO", "save");
+ * </pre>
+ * Every histogram is registered with the platform MBean server as
+ * {@code taskapp:type=Latency,store=...,operation=...} (visible in JConsole / VisualVM), and a
+ * daemon thread writes all snapshots to a text file every dump interval and once more at exit.
+ *
+ * Settings: {@code -Dtaskapp.metrics.file} (default {@code taskapp-metrics.txt}) and
+ * {@code -Dtaskapp.metrics.dumpIntervalMs} (default 60000, 0 turns the periodic dump off).
+ */
+public final class Metrics {
+
+    public static final String DUMP_FILE = System.getProperty("taskapp.metrics.file", "taskapp-metrics.txt");
+    public static final long DUMP_INTERVAL_MS = Long.getLong("taskapp.metrics.dumpIntervalMs", 60_000L);
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+    private static ScheduledExecutorService dumper; // guarded by Metrics.class
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the histogram for this store operation, creating and registering it on first use.
+     */
+    public static LatencyHistogram histogram(String store, String operation) {
+        return HISTOGRAMS.computeIfAbsent(store + "." + operation, key -> {
+            LatencyHistogram histogram = new LatencyHistogram(store, operation);
+            register(histogram);
+            startDumper();
+            return histogram;
+        });
+    }
+
+    /**
+     * @return a snapshot of every registered histogram, ordered by store and operation
+     */
+    public static List<LatencySnapshot> snapshots() {
+        List<LatencySnapshot> result = new ArrayList<>(HISTOGRAMS.size());
+        for (LatencyHistogram histogram : HISTOGRAMS.values()) {
+            result.add(histogram.snapshot());
+        }
+        return result;
+    }
+
+    /**
+     * Writes all snapshots to {@link #DUMP_FILE}, replacing its previous content in one atomic move.
+     */
+    public static void dump() {
+        StringBuilder text = new StringBuilder("# Operation latencies at ").append(new Date()).append('\n');
+        for (LatencySnapshot snapshot : snapshots()) {
+            text.append(snapshot).append('\n');
+        }
+        Path file = Path.of(DUMP_FILE);
+        Path tmp = Path.of(DUMP_FILE + ".tmp");
+        try {
+            Files.writeString(tmp, text, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Log.warn("✗ Could not write metrics to " + DUMP_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static void register(LatencyHistogram histogram) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("taskapp:type=Latency,store=" + histogram.store()
+                    + ",operation=" + histogram.operation());
+            if (!server.isRegistered(name)) {
+                server.registerMBean(histogram, name);
+            }
+        } catch (JMException e) {
+            Log.warn("✗ Could not register MBean for " + histogram.store() + "." + histogram.operation()
+                    + ": " + e.getMessage());
+        }
+    }
+
+    private static synchronized void startDumper() {
+        if (dumper != null || DUMP_INTERVAL_MS <= 0) {
+            return;
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dumper");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleWithFixedDelay(Metrics::dump, DUMP_INTERVAL_MS, DUMP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(Metrics::dump, "metrics-final-dump"));
+    }
+}
@@ -0,0 +1,161 @@
+package model;
+
+import database.DatabaseConfig;
+import database.DatabaseManager;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of {@link TaskDAO}: every call returns at once with a
+ * {@link CompletableFuture} and the JDBC work runs on its own virtual thread.
+ *
+ * Virtual threads are cheap to create and to park, so thousands of callers can have operations in
+ * flight without a platform thread each. Only the operations holding a connection are limited: a
+ * semaphore lets at most {@code maxConcurrency} run the blocking DAO call at once (by default the
+ * connection pool size, see {@link DatabaseConfig#ASYNC_MAX_CONCURRENCY}); the rest wait parked on
+ * their virtual thread instead of queueing inside the pool until its acquire timeout fires.
+ *
+ * A failed operation completes its future exceptionally with the DAO's exception.
+ */
+public class AsyncTaskDAO implements AutoCloseable {
+
+    private final TaskDAO dao;
+    private final Semaphore permits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Runnable shutdownListener = this::close;
+
+    public AsyncTaskDAO(TaskDAO dao) {
+        this(dao, DatabaseConfig.ASYNC_MAX_CONCURRENCY);
+    }
+
+    public AsyncTaskDAO(TaskDAO dao, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        this.dao = dao;
+        this.permits = new Semaphore(maxConcurrency, true);
+        DatabaseManager.addShutdownListener(shutdownListener);
+    }
+
+    //---------------------------- Writes -------------------------------------------------
+    public CompletableFuture<Void> save(Task task) {
+        return run(() -> dao.save(task));
+    }
+
+    public CompletableFuture<Integer> saveAll(Collection<Task> tasks) {
+        return supply(() -> dao.saveAll(tasks));
+    }
+
+    /**
+     * Versioned edits, see {@link TaskDAO#editTitle(Task, String)}. The task object is changed on
+     * the worker thread when the update succeeds, so read it again only after the future completes.
+     */
+    public CompletableFuture<UpdateResult> editTitle(Task task, String newValue) {
+        return supply(() -> dao.editTitle(task, newValue));
+    }
+
+    public CompletableFuture<UpdateResult> changeDescription(Task task, String newDescription) {
+        return supply(() -> dao.changeDescription(task, newDescription));
+    }
+
+    public CompletableFuture<UpdateResult> toggleTaskStatus(Task task) {
+        return supply(() -> dao.toggleTaskStatus(task));
+    }
+
+    public CompletableFuture<UpdateResult> deleteTask(Task task) {
+        return supply(() -> dao.deleteTask(task));
+    }
+
+    /**
+     * Read-modify-write with bounded retry, see {@link TaskDAO#update(UUID, Consumer)}.
+     */
+    public CompletableFuture<UpdateResult> update(UUID id, Consumer<Task> change) {
+        return supply(() -> dao.update(id, change));
+    }
+
+    public CompletableFuture<Integer> setCompleted(Collection<UUID> ids, boolean completed) {
+        return supply(() -> dao.setCompleted(ids, completed));
+    }
+
+    public CompletableFuture<Integer> deleteCompleted() {
+        return supply(dao::deleteCompleted);
+    }
+
+    public CompletableFuture<Integer> deleteCreatedBetween(Date from, Date to) {
+        return supply(() -> dao.deleteCreatedBetween(from, to));
+    }
+
+    //---------------------------- Reads --------------------------------------------------
+    public CompletableFuture<List<Task>> listAllTasks() {
+        return supply(dao::listAllTasks);
+    }
+
+    public CompletableFuture<TaskPage> listTasksPage(Task after, int pageSize) {
+        return supply(() -> dao.listTasksPage(after, pageSize));
+    }
+
+    public CompletableFuture<Task> findById(UUID id) {
+        return supply(() -> dao.findById(id));
+    }
+
+    public CompletableFuture<Integer> countTasks() {
+        return supply(dao::countTasks);
+    }
+
+    //---------------------------- Execution ----------------------------------------------
+    /**
+     * @return how many more operations could start right now without waiting for a permit
+     */
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * @return an estimate of the operations parked waiting for a permit
+     */
+    public int queuedOperations() {
+        return permits.getQueueLength();
+    }
+
+    private CompletableFuture<Void> run(Runnable operation) {
+        return supply(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return operation.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Stops accepting operations and waits for the ones already submitted to finish.
+     */
+    @Override
+    public void close() {
+        DatabaseManager.removeShutdownListener(shutdownListener);
+        executor.close();
+    }
+}
@@ -0,0 +1,202 @@
+package model;
+
+import logging.Log;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * File-backed task store using the {@link TaskCodec} binary format ({@code tasks.bin} by default,
+ * {@code -Dtaskapp.bin.file} to change it).
+ *
+ * The file is a log: loading reads it front to back, later records for an id replace earlier
+ * ones and tombstones remove them. Every change appends one record, so adds and edits cost the
+ * same however many tasks exist. Once superseded records outnumber live ones the file is compacted:
+ * all live tasks are written to a temporary file that atomically replaces the log.
+ *
+ * A record cut off by a crash at the end of the file is dropped on load and the file is compacted.
+ * Methods are synchronized like {@link JsonDatabase}.
+ */
+public class BinaryTaskStore implements Closeable {
+
+    public static final String DEFAULT_FILE = System.getProperty("taskapp.bin.file", "tasks.bin");
+    private static final int MIN_COMPACTION_RECORDS = 1_000;
+
+    // Per-operation latency, see metrics.Metrics
+    private static final LatencyHistogram LOAD_LATENCY = Metrics.histogram("BinaryTaskStore", "load");
+    private static final LatencyHistogram APPEND_LATENCY = Metrics.histogram("BinaryTaskStore", "append");
+    private static final LatencyHistogram COMPACT_LATENCY = Metrics.histogram("BinaryTaskStore", "compact");
+
+    private final Path file;
+    private final TaskIndex tasks = new TaskIndex();
+    private TaskCodec.Writer appender;
+    private int records; // records in the file: live, superseded and tombstones
+
+    public BinaryTaskStore() {
+        this(Path.of(DEFAULT_FILE));
+    }
+
+    public BinaryTaskStore(Path file) {
+        this.file = file;
+        try {
+            if (Files.exists(file)) {
+                if (!load()) {
+                    compact();
+                }
+            } else {
+                compact(); // writes the header of an empty file
+            }
+            openAppender();
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot open binary task store " + file, e);
+        }
+    }
+
+    //------------------------------ Load / compact ---------------------------------------
+    /**
+     * @return false if the file ended in the middle of a record
+     */
+    private boolean load() throws IOException {
+        long start = System.nanoTime();
+        try (InputStream in = Files.newInputStream(file);
+             TaskCodec.Reader reader = new TaskCodec.Reader(in)) {
+            Task task;
+            while ((task = reader.next()) != null) {
+                if (reader.isDeleted()) {
+                    tasks.remove(task.getId());
+                } else {
+                    tasks.add(task);
+                }
+                records++;
+            }
+            Log.info("Loaded %d tasks from %s (%d records)", tasks.size(), file, records);
+            return true;
+        } catch (EOFException e) {
+            Log.warn("Dropped an incomplete record at the end of %s, %d tasks loaded", file, tasks.size());
+            return false;
+        } catch (IOException e) {
+            LOAD_LATENCY.failed();
+            throw e;
+        } finally {
+            LOAD_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Rewrites the file with one record per live task.
+     */
+    public synchronized void compact() throws IOException {
+        long start = System.nanoTime();
+        try {
+            if (appender != null) {
+                appender.close();
+                appender = null;
+            }
+            Path tmp = Path.of(file + ".tmp");
+            try (TaskCodec.Writer writer = new TaskCodec.Writer(Files.newOutputStream(tmp))) {
+                for (Task task : tasks.values()) {
+                    writer.write(task);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            records = tasks.size();
+            Log.debug("Compacted %s to %d tasks", file, records);
+        } catch (IOException e) {
+            COMPACT_LATENCY.failed();
+            throw e;
+        } finally {
+            COMPACT_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    private void openAppender() throws IOException {
+        appender = new TaskCodec.Writer(Files.newOutputStream(file, StandardOpenOption.APPEND), false);
+    }
+
+    private void appendRecord(Task task, boolean tombstone) {
+        long start = System.nanoTime();
+        try {
+            if (appender == null) {
+                openAppender();
+            }
+            if (tombstone) {
+                appender.writeTombstone(task.getId());
+            } else {
+                appender.write(task);
+            }
+            appender.flush();
+            records++;
+            if (records > MIN_COMPACTION_RECORDS && records > 2 * tasks.size()) {
+                compact(); // the appender is reopened on the next change
+            }
+        } catch (IOException e) {
+            APPEND_LATENCY.failed();
+            throw new RuntimeException(e);
+        } finally {
+            APPEND_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    //------------------------------ Operations -------------------------------------------
+    public synchronized void addTask(Task task) {
+        tasks.add(task);
+        appendRecord(task, false);
+    }
+
+    /**
+     * Edits a task and appends its new state.
+     *
+     * @param editOption 1 edit title, 2 edit description, 3 toggle status, 4 delete
+     */
+    public synchronized void editTask(Task task, int editOption, String newValue) {
+        switch (editOption) {
+            case 1 -> task.setTitle(newValue);
+            case 2 -> task.setDescription(newValue);
+            case 3 -> {
+                task.setStatus();
+                tasks.statusChanged(task);
+            }
+            case 4 -> {
+                tasks.remove(task.getId());
+                appendRecord(task, true);
+                return;
+            }
+            default -> {
+                Log.warn("Invalid edit option: %d", editOption);
+                return;
+            }
+        }
+        appendRecord(task, false);
+    }
+
+    public synchronized Task findTaskById(UUID id) {
+        return tasks.get(id);
+    }
+
+    public synchronized List<Task> getTaskList() {
+        return new ArrayList<>(tasks.values());
+    }
+
+    public synchronized int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (appender != null) {
+            appender.close();
+            appender = null;
+        }
+    }
+}
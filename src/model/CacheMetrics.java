@@ -0,0 +1,27 @@
+package model;
+
+/**
+ * Point-in-time snapshot of {@link CachingTaskRepository} counters.
+ *
+ * @param hits          reads served from memory
+ * @param misses        reads that went to Derby
+ * @param flushes       successful write-back transactions
+ * @param flushedRows   rows updated or deleted by those transactions
+ * @param evictions     tasks dropped from the LRU map
+ * @param size          tasks currently cached
+ * @param pendingWrites edits and deletes waiting to be flushed
+ */
+public record CacheMetrics(long hits, long misses, long flushes, long flushedRows, long evictions,
+                           int size, int pendingWrites) {
+
+    public double hitRatio() {
+        long reads = hits + misses;
+        return reads == 0 ? 0.0 : (double) hits / reads;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Cache: size=%d pending=%d hits=%d misses=%d hitRatio=%.2f flushes=%d flushedRows=%d evictions=%d",
+                size, pendingWrites, hits, misses, hitRatio(), flushes, flushedRows, evictions);
+    }
+}
@@ -0,0 +1,457 @@
+package model;
+
+import database.DatabaseConfig;
+import database.DatabaseManager;
+import logging.Log;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind cache in front of {@link TaskDAO}, keyed by task id.
+ *
+ * Reads are served from a bounded LRU map when possible. Title, description and status edits only
+ * change the cached task and mark it dirty; repeated edits of the same task collapse into one row
+ * write. Dirty tasks and pending deletes are written to Derby in one batched transaction by a
+ * background flusher, either every flush interval or as soon as the pending count reaches the
+ * flush threshold. New tasks are written through immediately.
+ *
+ * Pending writes are kept apart from the LRU map, so evicting a task never loses an edit.
+ * {@link #flush()} is registered with {@link DatabaseManager#shutdown()} so nothing is lost on exit.
+ *
+ * Edits and deletes are announced on {@link TaskEvents} when they are made, not when they are
+ * flushed; {@link TaskDAO} announces them again on the flush, which subscribers can ignore.
+ *
+ * Flushed edits are versioned updates. The repository remembers which fields of each dirty task
+ * were edited, so when another writer changed a row first it re-reads the row, re-applies only
+ * those edits on top and tries again, up to {@link DatabaseConfig#UPDATE_MAX_ATTEMPTS} times per
+ * flush. A toggle is re-applied as a toggle of the current status. Tasks still in conflict stay
+ * pending for the next flush; tasks deleted by another writer are dropped.
+ */
+public class CachingTaskRepository implements AutoCloseable {
+
+    private final TaskDAO dao;
+    private final int flushThreshold;
+
+    private final Map<UUID, Task> cache;                    // guarded by this
+    private final Map<UUID, Task> dirty = new LinkedHashMap<>(); // guarded by this
+    private final Set<UUID> deleted = new LinkedHashSet<>();  // guarded by this
+    private final Map<UUID, Integer> changes = new HashMap<>(); // edited fields of dirty tasks, guarded by this
+
+    // Bits of the changes map; STATUS is flipped by every toggle, so two toggles cancel out
+    private static final int TITLE = 1;
+    private static final int DESCRIPTION = 1 << 1;
+    private static final int STATUS = 1 << 2;
+
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+    private final Runnable shutdownListener = this::close;
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingTaskRepository(TaskDAO dao) {
+        this(dao, DatabaseConfig.CACHE_MAX_ENTRIES, DatabaseConfig.CACHE_FLUSH_THRESHOLD,
+                DatabaseConfig.CACHE_FLUSH_INTERVAL_MS);
+    }
+
+    public CachingTaskRepository(TaskDAO dao, int maxEntries, int flushThreshold, long flushIntervalMillis) {
+        this.dao = dao;
+        this.flushThreshold = Math.max(1, flushThreshold);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Task> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "task-cache-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::backgroundFlush, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        DatabaseManager.addShutdownListener(shutdownListener);
+    }
+
+    //---------------------------- Reads --------------------------------------------------
+    /**
+     * Returns the task with this id, from memory if cached or pending, otherwise from Derby.
+     */
+    public Task findById(UUID id) {
+        synchronized (this) {
+            if (deleted.contains(id)) {
+                hits.increment();
+                return null;
+            }
+            Task task = cache.get(id);
+            if (task == null) {
+                task = dirty.get(id);
+            }
+            if (task != null) {
+                hits.increment();
+                return task;
+            }
+        }
+        misses.increment();
+        Task loaded = dao.findById(id);
+        if (loaded == null) {
+            return null;
+        }
+        synchronized (this) {
+            // Another thread may have cached (and edited) it meanwhile; keep that copy
+            Task existing = cache.putIfAbsent(id, loaded);
+            return existing != null ? existing : loaded;
+        }
+    }
+
+    /**
+     * Returns a page from Derby with pending changes applied on top: rows with a pending delete
+     * are dropped and rows with pending edits are replaced by their cached version.
+     */
+    public TaskPage listTasksPage(Task after, int pageSize) {
+        TaskPage page = dao.listTasksPage(after, pageSize);
+        List<Task> tasks = new ArrayList<>(page.getTasks().size());
+        synchronized (this) {
+            for (Task row : page.getTasks()) {
+                if (deleted.contains(row.getId())) {
+                    continue;
+                }
+                Task pending = dirty.get(row.getId());
+                tasks.add(pending != null ? pending : row);
+            }
+        }
+        return new TaskPage(tasks, page.hasNext());
+    }
+
+    public boolean hasTasks() {
+        flushIfDeletesPending();
+        return dao.hasTasks();
+    }
+
+    public int countTasks() {
+        flushIfDeletesPending();
+        return dao.countTasks();
+    }
+
+    //---------------------------- Writes -------------------------------------------------
+    /**
+     * Inserts the task right away and caches it only once the insert succeeded.
+     *
+     * @throws RuntimeException if the insert fails; nothing is cached then
+     */
+    public void save(Task task) {
+        dao.save(task);
+        synchronized (this) {
+            deleted.remove(task.getId());
+            cache.put(task.getId(), task);
+        }
+    }
+
+    public void editTitle(Task task, String newValue) {
+        if (markDirty(task, TITLE, t -> t.setTitle(newValue))) {
+            TaskEvents.updated(TaskEvent.Source.CACHE, task, TaskEvent.Field.TITLE);
+        }
+    }
+
+    public void changeDescription(Task task, String newDescription) {
+        if (markDirty(task, DESCRIPTION, t -> t.setDescription(newDescription))) {
+            TaskEvents.updated(TaskEvent.Source.CACHE, task, TaskEvent.Field.DESCRIPTION);
+        }
+    }
+
+    public void toggleTaskStatus(Task task) {
+        if (markDirty(task, STATUS, Task::setStatus)) {
+            TaskEvents.toggled(TaskEvent.Source.CACHE, task);
+        }
+    }
+
+    public void deleteTask(Task task) {
+        int pending;
+        synchronized (this) {
+            cache.remove(task.getId());
+            dirty.remove(task.getId());
+            changes.remove(task.getId());
+            deleted.add(task.getId());
+            pending = dirty.size() + deleted.size();
+        }
+        TaskEvents.deleted(TaskEvent.Source.CACHE, task.getId());
+        requestFlushIfNeeded(pending);
+    }
+
+    //---------------------------- Set-based writes --------------------------------------
+    // These go to Derby at once as single statements or batches. Pending edits are flushed first
+    // so they are not applied on top of the result later, and the cached copies the operation may
+    // have made stale are dropped.
+
+    /**
+     * Marks the tasks with these ids as completed (or open).
+     *
+     * @return the number of tasks whose status changed
+     */
+    public int setCompleted(Collection<UUID> ids, boolean completed) {
+        flush();
+        int changed = dao.setCompleted(ids, completed);
+        synchronized (this) {
+            for (UUID id : ids) {
+                cache.remove(id);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Deletes the tasks with these ids, dropping any pending edits of them.
+     *
+     * @return the number of tasks deleted
+     */
+    public int deleteAll(Collection<UUID> ids) {
+        flush();
+        int count = dao.deleteAllById(ids);
+        // Only once the rows are gone, so a failed delete leaves pending changes in place
+        synchronized (this) {
+            for (UUID id : ids) {
+                cache.remove(id);
+                dirty.remove(id);
+                changes.remove(id);
+                deleted.remove(id);
+            }
+        }
+        return count;
+    }
+
+    public int deleteCompleted() {
+        flush();
+        int count = dao.deleteCompleted();
+        synchronized (this) {
+            cache.values().removeIf(Task::getStatus);
+        }
+        return count;
+    }
+
+    /**
+     * Deletes the tasks whose creation time lies in the half-open range {@code [from, to)}, see
+     * {@link TaskDAO#deleteCreatedBetween(Date, Date)}.
+     */
+    public int deleteCreatedBetween(Date from, Date to) {
+        flush();
+        int count = dao.deleteCreatedBetween(from, to);
+        synchronized (this) {
+            // The same half-open timestamp range Derby applied
+            cache.values().removeIf(task -> task.getDate() != null
+                    && !task.getDate().before(from) && task.getDate().before(to));
+        }
+        return count;
+    }
+
+    /**
+     * Applies an edit to the task and marks it dirty. The edit runs under the same lock as
+     * {@link #rebase(List, Map)}, since the cached task object is shared with other request
+     * threads and the flusher.
+     *
+     * @return false if the task has been deleted; the edit is then dropped and not applied
+     */
+    private boolean markDirty(Task task, int field, Consumer<Task> change) {
+        int pending;
+        synchronized (this) {
+            if (deleted.contains(task.getId())) {
+                return false;
+            }
+            change.accept(task);
+            cache.put(task.getId(), task);
+            dirty.put(task.getId(), task);
+            addChanges(task.getId(), field);
+            pending = dirty.size() + deleted.size();
+        }
+        requestFlushIfNeeded(pending);
+        return true;
+    }
+
+    // guarded by this
+    private void addChanges(UUID id, int fields) {
+        int current = changes.getOrDefault(id, 0);
+        changes.put(id, ((current | fields) & ~STATUS) | ((current ^ fields) & STATUS));
+    }
+
+    private void requestFlushIfNeeded(int pending) {
+        if (pending >= flushThreshold && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(this::backgroundFlush);
+        }
+    }
+
+    //---------------------------- Flushing -----------------------------------------------
+    /**
+     * Writes all pending edits and deletes to Derby before returning.
+     * If the write fails, the pending changes are kept for the next attempt and the error is rethrown.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            List<Task> updates;
+            List<UUID> deletes;
+            Map<UUID, Integer> edited;
+            synchronized (this) {
+                if (dirty.isEmpty() && deleted.isEmpty()) {
+                    return;
+                }
+                updates = new ArrayList<>(dirty.values());
+                deletes = new ArrayList<>(deleted);
+                edited = new HashMap<>(changes);
+                dirty.clear();
+                deleted.clear();
+                changes.clear();
+            }
+            try {
+                int rows = dao.deleteAllById(deletes);
+                List<Task> attempt = updates;
+                for (int i = 1; !attempt.isEmpty(); i++) {
+                    List<Task> conflicts = new ArrayList<>();
+                    rows += dao.updateAll(attempt, conflicts::add);
+                    if (conflicts.isEmpty()) {
+                        break;
+                    }
+                    if (i == DatabaseConfig.UPDATE_MAX_ATTEMPTS) {
+                        Log.warn("%d task(s) still changed by another writer after %d attempts, will retry",
+                                conflicts.size(), i);
+                        requeue(conflicts, edited);
+                        break;
+                    }
+                    attempt = rebase(conflicts, edited);
+                }
+                flushes.increment();
+                flushedRows.add(rows);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    deleted.addAll(deletes);
+                }
+                requeue(updates, edited);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Re-reads tasks whose rows another writer changed and re-applies this repository's edits,
+     * recorded in {@code edited}, on top of the current row values and version.
+     *
+     * @return the tasks to write again; tasks whose rows are gone are dropped from the cache
+     */
+    private List<Task> rebase(List<Task> conflicts, Map<UUID, Integer> edited) {
+        List<Task> rebased = new ArrayList<>(conflicts.size());
+        for (Task task : conflicts) {
+            Task current = dao.findById(task.getId());
+            if (current == null) {
+                synchronized (this) {
+                    cache.remove(task.getId(), task);
+                    dirty.remove(task.getId(), task);
+                    changes.remove(task.getId());
+                }
+                Log.debug("Task %s was deleted by another writer, dropping its edits", task.getId());
+                TaskEvents.deleted(TaskEvent.Source.CACHE, task.getId());
+                continue;
+            }
+            synchronized (this) {
+                // Edits made since this flush started are already on the task object too
+                int fields = edited.getOrDefault(task.getId(), 0);
+                int since = dirty.get(task.getId()) == task ? changes.getOrDefault(task.getId(), 0) : 0;
+                if (((fields | since) & TITLE) == 0) {
+                    task.setTitle(current.getTitle());
+                }
+                if (((fields | since) & DESCRIPTION) == 0) {
+                    task.setDescription(current.getDescription());
+                }
+                boolean status = current.getStatus() ^ (((fields ^ since) & STATUS) != 0);
+                if (task.getStatus() != status) {
+                    task.setStatus();
+                }
+                task.setVersion(current.getVersion());
+            }
+            rebased.add(task);
+        }
+        return rebased;
+    }
+
+    /**
+     * Puts tasks back as dirty, keeping any newer edit of the same task.
+     */
+    private void requeue(List<Task> tasks, Map<UUID, Integer> edited) {
+        synchronized (this) {
+            for (Task task : tasks) {
+                if (deleted.contains(task.getId())) {
+                    continue;
+                }
+                dirty.putIfAbsent(task.getId(), task);
+                addChanges(task.getId(), edited.getOrDefault(task.getId(), 0));
+            }
+        }
+    }
+
+    private void backgroundFlush() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            Log.warn("Background flush failed, will retry: " + e.getMessage());
+        }
+    }
+
+    private void flushIfDeletesPending() {
+        boolean pendingDeletes;
+        synchronized (this) {
+            pendingDeletes = !deleted.isEmpty();
+        }
+        if (pendingDeletes) {
+            flush();
+        }
+    }
+
+    public CacheMetrics metrics() {
+        int size;
+        int pending;
+        synchronized (this) {
+            size = cache.size();
+            pending = dirty.size() + deleted.size();
+        }
+        return new CacheMetrics(hits.sum(), misses.sum(), flushes.sum(), flushedRows.sum(), evictions.sum(),
+                size, pending);
+    }
+
+    /**
+     * Stops the background flusher and writes any pending changes.
+     */
+    @Override
+    public void close() {
+        DatabaseManager.removeShutdownListener(shutdownListener);
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        Log.info(metrics().toString());
+    }
+}
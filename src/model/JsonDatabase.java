@@ -2,19 +2,53 @@ package model;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.core.type.TypeReference;
+import logging.Log;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public class JsonDatabase {
     private static JsonDatabase instance;
+    private static final long COMPACTION_INTERVAL_SECONDS = 30;
+    private static final int COMPACTION_THRESHOLD = 10_000; // journal records that trigger an early compaction
+    // -Dtaskapp.json.lazyLoad=true loads tasks.json in the background while the store is already usable
+    private static final boolean LAZY_LOAD = Boolean.getBoolean("taskapp.json.lazyLoad");
+    private static final int LOAD_CHUNK_SIZE = 1_000;
+
+    // Per-operation latency, see metrics.Metrics
+    private static final LatencyHistogram LOAD_LATENCY = Metrics.histogram("JsonDatabase", "load");
+    private static final LatencyHistogram SNAPSHOT_LATENCY = Metrics.histogram("JsonDatabase", "saveTasksToJson");
+    private static final LatencyHistogram JOURNAL_LATENCY = Metrics.histogram("JsonDatabase", "journalAppend");
+    private static final LatencyHistogram ADD_LATENCY = Metrics.histogram("JsonDatabase", "addTask");
+    private static final LatencyHistogram EDIT_LATENCY = Metrics.histogram("JsonDatabase", "editTask");
+    private static final LatencyHistogram FIND_LATENCY = Metrics.histogram("JsonDatabase", "findTaskById");
+    private static final LatencyHistogram QUERY_LATENCY = Metrics.histogram("JsonDatabase", "query");
+    private static final LatencyHistogram BULK_LATENCY = Metrics.histogram("JsonDatabase", "bulkEdit");
+
     private final ObjectMapper objectMapper;
-    private final String JSON_FILE_PATH = "tasks.json";
-    private List<Task> taskList;
+    private final String JSON_FILE_PATH = System.getProperty("taskapp.json.file", "tasks.json");
+    private final TaskIndex tasks; // primary id index plus status and creation date indexes
+    private final JsonJournal journal;
+    private boolean journalMode = true;
+    private final ScheduledExecutorService compactor;
+    private boolean loaded; // guarded by this
+    private boolean snapshotBlocked; // guarded by this, set if an unreadable tasks.json could not be moved aside
 
     private JsonDatabase() {
         // Configure ObjectMapper
@@ -22,10 +56,26 @@ public class JsonDatabase {
         objectMapper.enable(SerializationFeature.INDENT_OUTPUT); // Pretty print JSON
         
         // Initialize task list
-        taskList = new ArrayList<>();
+        tasks = new TaskIndex();
+        journal = new JsonJournal(Path.of(JSON_FILE_PATH + ".journal"), objectMapper);
         
+        // Fold the journal back into the snapshot in the background
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "json-journal-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded,
+                COMPACTION_INTERVAL_SECONDS, COMPACTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
         // Load data when database is created
-        loadTasksFromJson();
+        if (LAZY_LOAD) {
+            Thread loader = new Thread(this::loadAndReplay, "json-loader");
+            loader.setDaemon(true);
+            loader.start();
+        } else {
+            loadAndReplay();
+        }
     }
 
     /**
@@ -39,112 +89,451 @@ public class JsonDatabase {
     }
 
     /**
-     * Load tasks from JSON file into memory
+     * Streams the tasks of a store in this format without loading it: the snapshot at {@code file}
+     * with the records of {@code <file>.journal} applied, as opening the store would see them.
+     * Snapshot tasks come first in file order, then tasks added only in the journal. Only the
+     * journal's net change per task is held in memory.
+     *
+     * @throws NoSuchFileException if neither the snapshot nor its journal exists
+     */
+    public static void forEachTask(Path file, Consumer<Task> action) throws IOException {
+        Path journalFile = Path.of(file + ".journal");
+        if (!Files.exists(file) && !Files.exists(journalFile)) {
+            throw new NoSuchFileException(file.toString());
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<UUID, JsonJournal.Change> changes = new JsonJournal(journalFile, objectMapper).fold();
+        if (Files.exists(file)) {
+            try (JsonTaskReader reader = new JsonTaskReader(file.toFile(), objectMapper)) {
+                Task task;
+                while ((task = reader.next()) != null) {
+                    JsonJournal.Change change = changes.remove(task.getId());
+                    Task current = change == null ? task : change.applyTo(task);
+                    if (current != null) {
+                        action.accept(current);
+                    }
+                }
+            }
+        }
+        for (JsonJournal.Change change : changes.values()) {
+            if (change.added() != null) {
+                action.accept(change.added());
+            }
+        }
+    }
+
+    private void loadAndReplay() {
+        loadTasksFromJson();
+        synchronized (this) {
+            replayJournal();
+            loaded = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Load tasks from JSON file into memory.
+     * The file is streamed one task at a time and published to the list in chunks, so in lazy
+     * mode the tasks loaded so far can be queried while the rest of the file is still being read.
      */
     private void loadTasksFromJson() {
         File jsonFile = new File(JSON_FILE_PATH);
         
         if (!jsonFile.exists()) {
-            System.out.println("JSON file not found. Starting with empty task list.");
+            Log.info("JSON file not found. Starting with empty task list.");
             return;
         }
 
+        int count = 0;
+        List<Task> chunk = new ArrayList<>(LOAD_CHUNK_SIZE);
+        long start = System.nanoTime();
+        try (JsonTaskReader reader = new JsonTaskReader(jsonFile, objectMapper)) {
+            Task task;
+            while ((task = reader.next()) != null) {
+                chunk.add(task);
+                if (chunk.size() == LOAD_CHUNK_SIZE) {
+                    count += publishLoaded(chunk);
+                }
+            }
+            count += publishLoaded(chunk);
+            Log.info("Loaded " + count + " tasks from JSON file.");
+        } catch (IOException e) {
+            LOAD_LATENCY.failed();
+            Log.error("Error loading tasks from JSON: " + e.getMessage());
+            synchronized (this) {
+                tasks.clear(); // Start with empty list if loading fails
+                setAsideUnreadable(jsonFile.toPath());
+            }
+        } finally {
+            LOAD_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Moves an unreadable snapshot out of the way, with a copy of its journal, before compaction
+     * could replace it with the few tasks the journal holds. If the file cannot be moved, no
+     * snapshot is written for the rest of the run and changes stay in the journal.
+     */
+    private void setAsideUnreadable(Path file) {
+        String suffix = ".unreadable-" + System.currentTimeMillis();
+        try {
+            Path journalFile = Path.of(JSON_FILE_PATH + ".journal");
+            if (Files.exists(journalFile)) {
+                Files.copy(journalFile, Path.of(journalFile + suffix));
+            }
+            Path aside = Path.of(file + suffix);
+            Files.move(file, aside);
+            Log.warn("Moved unreadable %s to %s; starting from its journal only", file, aside);
+        } catch (IOException e) {
+            snapshotBlocked = true;
+            Log.error("Cannot move unreadable " + file + " aside, it will not be overwritten: " + e.getMessage());
+        }
+    }
+
+    private synchronized int publishLoaded(List<Task> chunk) {
+        int size = chunk.size();
+        tasks.addAll(chunk);
+        chunk.clear();
+        return size;
+    }
+
+    /**
+     * @return true once tasks.json and its journal have been fully loaded
+     */
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Blocks until tasks.json and its journal have been fully loaded (returns at once unless lazy loading is on).
+     */
+    public synchronized void awaitLoaded() throws InterruptedException {
+        while (!loaded) {
+            wait();
+        }
+    }
+
+    /**
+     * Replay journal records written since the last snapshot
+     */
+    private void replayJournal() {
+        try {
+            int replayed = journal.replay(this::applyRecord);
+            if (replayed > 0) {
+                Log.info("Replayed " + replayed + " journal records.");
+            }
+        } catch (IOException e) {
+            Log.error("Error replaying JSON journal: " + e.getMessage());
+        }
+    }
+
+    private void applyRecord(JsonJournal.Record record) {
+        if (record.op == JsonJournal.Op.ADD) {
+            // Idempotent: the snapshot may already contain this task, add() replaces it
+            tasks.add(record.task);
+            return;
+        }
+        Task task = findTaskById(record.id);
+        if (task == null) {
+            return;
+        }
+        switch (record.op) {
+            case TITLE -> task.setTitle(record.value);
+            case DESCRIPTION -> task.setDescription(record.value);
+            case STATUS -> {
+                if (task.getStatus() != record.completed) {
+                    task.setStatus();
+                    tasks.statusChanged(task);
+                }
+            }
+            case DELETE -> tasks.remove(task.getId());
+            default -> { }
+        }
+    }
+
+    /**
+     * Turns journal mode on or off. With journal mode on (the default) every change appends one
+     * record to {@code tasks.json.journal} and the snapshot is rewritten only by compaction; with it
+     * off every change rewrites {@code tasks.json}. Turning it off writes a fresh snapshot first.
+     */
+    public synchronized void setJournalMode(boolean enabled) {
+        if (journalMode && !enabled) {
+            saveTasksToJson();
+        }
+        journalMode = enabled;
+    }
+
+    /**
+     * Writes a fresh snapshot and empties the journal.
+     */
+    public synchronized void compact() {
+        saveTasksToJson();
+    }
+
+    private synchronized void compactIfNeeded() {
+        if (loaded && !snapshotBlocked && journal.size() > 0) {
+            compact();
+        }
+    }
+
+    private void appendToJournal(JsonJournal.Record record) {
+        appendToJournal(List.of(record));
+    }
+
+    private void appendToJournal(List<JsonJournal.Record> records) {
+        long start = System.nanoTime();
         try {
-            // Read tasks from JSON file using TypeReference for List<Task>
-            TypeReference<List<Task>> typeRef = new TypeReference<List<Task>>() {};
-            taskList = objectMapper.readValue(jsonFile, typeRef);
-            System.out.println("Loaded " + taskList.size() + " tasks from JSON file.");
+            journal.appendAll(records);
         } catch (IOException e) {
-            System.out.println("Error loading tasks from JSON: " + e.getMessage());
-            taskList = new ArrayList<>(); // Start with empty list if loading fails
+            JOURNAL_LATENCY.failed();
+            // Fall back to a full snapshot so the change is not lost
+            Log.error("✗ Error writing JSON journal: " + e.getMessage());
+            saveTasksToJson();
+            return;
+        } finally {
+            JOURNAL_LATENCY.record(System.nanoTime() - start);
+        }
+        if (journal.size() >= COMPACTION_THRESHOLD) {
+            compactor.execute(this::compactIfNeeded);
         }
     }
 
     /**
      * Save all tasks to JSON file
      */
-    public void saveTasksToJson() {
+    public synchronized void saveTasksToJson() {
+        long start = System.nanoTime();
         try {
+            // Never snapshot a partially loaded list; wait() releases the lock for the loader
+            while (!loaded) {
+                wait();
+            }
+            if (snapshotBlocked) {
+                Log.warn("✗ tasks.json could not be loaded, not overwriting it; changes stay in the journal");
+                return;
+            }
             File jsonFile = new File(JSON_FILE_PATH);
         
             // Ensure parent directory exists
-            File parentDir = jsonFile.getParentFile();
+            File parentDir = jsonFile.getAbsoluteFile().getParentFile();
             if (parentDir != null && !parentDir.exists()) {
                 parentDir.mkdirs();
             }
         
-            // Write the JSON file
-            objectMapper.writeValue(jsonFile, taskList);
+            // Write to a temp file and swap it in, so a crash never leaves a half-written snapshot
+            Path tmp = Path.of(JSON_FILE_PATH + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), tasks.values());
+            Files.move(tmp, jsonFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // The snapshot now contains everything the journal recorded
+            journal.reset();
         
-            // Verify the file was created
-            if (jsonFile.exists()) {
-                System.out.println("✓ Tasks saved to JSON file: " + jsonFile.getAbsolutePath());
-                System.out.println("✓ File size: " + jsonFile.length() + " bytes");
-            } else {
-                System.out.println("✗ Failed to create JSON file");
-            }
+            Log.debug("✓ Tasks saved to JSON file: " + JSON_FILE_PATH);
         
         } catch (IOException e) {
-            System.out.println("✗ Error saving tasks to JSON: " + e.getMessage());
-            e.printStackTrace(); // This will show the full stack trace
+            SNAPSHOT_LATENCY.failed();
+            Log.error("✗ Error saving tasks to JSON: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Log.warn("✗ Interrupted before tasks finished loading, JSON file not saved");
         } catch (Exception e) {
-            System.out.println("✗ Unexpected error: " + e.getMessage());
-            e.printStackTrace();
+            SNAPSHOT_LATENCY.failed();
+            Log.error("✗ Unexpected error: " + e.getMessage(), e);
+        } finally {
+            SNAPSHOT_LATENCY.record(System.nanoTime() - start);
         }
     }
 
     /**
      * Add a new task and save to file
      */
-    public void addTask(Task task) {
-        System.out.println("Adding task: " + task.getTitle());
-        taskList.add(task);
-        System.out.println("Task list size: " + taskList.size());
-        saveTasksToJson(); // Auto-save after adding
+    public synchronized void addTask(Task task) {
+        long start = System.nanoTime();
+        tasks.add(task);
+        Log.debug("Added task %s, task list size %d", task.getId(), tasks.size());
+        if (journalMode) {
+            appendToJournal(JsonJournal.Record.add(task));
+        } else {
+            saveTasksToJson(); // Auto-save after adding
+        }
+        ADD_LATENCY.record(System.nanoTime() - start);
+        TaskEvents.added(TaskEvent.Source.JSON, task);
     }
 
     /**
      * Get all tasks
      */
-    public List<Task> getTaskList() {
-        return new ArrayList<>(taskList); // Return copy to prevent external modification
+    public synchronized List<Task> getTaskList() {
+        return new ArrayList<>(tasks.values()); // Return copy to prevent external modification
     }
 
     /**
      * Edit task and save changes
      */
-    public void editTask(Task task, int editOption, String newValue) {
+    public synchronized void editTask(Task task, int editOption, String newValue) {
+        long start = System.nanoTime();
+        JsonJournal.Record record = null;
         switch (editOption) {
             case 1: // Edit title
                 task.setTitle(newValue);
+                record = JsonJournal.Record.of(JsonJournal.Op.TITLE, task.getId(), newValue, null);
                 break;
             case 2: // Edit description
                 task.setDescription(newValue);
+                record = JsonJournal.Record.of(JsonJournal.Op.DESCRIPTION, task.getId(), newValue, null);
                 break;
             case 3: // Toggle status
                 task.setStatus();
+                tasks.statusChanged(task);
+                record = JsonJournal.Record.of(JsonJournal.Op.STATUS, task.getId(), null, task.getStatus());
                 break;
             case 4: // Delete task
-                taskList.remove(task);
+                tasks.remove(task.getId());
+                record = JsonJournal.Record.of(JsonJournal.Op.DELETE, task.getId(), null, null);
                 break;
         }
-        saveTasksToJson(); // Auto-save after editing
+        if (journalMode && record != null) {
+            appendToJournal(record);
+        } else {
+            saveTasksToJson(); // Auto-save after editing
+        }
+        EDIT_LATENCY.record(System.nanoTime() - start);
+        TaskEvents.edited(TaskEvent.Source.JSON, task, editOption);
         
         if (editOption == 4) {
-            System.out.println("Task deleted successfully!");
+            Log.debug("Task deleted successfully!");
         } else {
-            System.out.println("Task updated successfully!");
+            Log.debug("Task updated successfully!");
+        }
+    }
+
+    //------------------------------ Set-based changes ------------------------------------
+    // One pass over the indexes and one journal write (or one snapshot) for the whole set,
+    // instead of one editTask call, and one flush, per task.
+
+    /**
+     * Marks the tasks with these ids as completed (or open). Unknown ids and tasks that already
+     * have that status are skipped.
+     *
+     * @return the number of tasks whose status changed
+     */
+    public synchronized int setCompleted(Collection<UUID> ids, boolean completed) {
+        awaitLoadedForBulk();
+        long start = System.nanoTime();
+        List<Task> changed = new ArrayList<>();
+        List<JsonJournal.Record> records = new ArrayList<>();
+        for (UUID id : ids) {
+            Task task = tasks.get(id);
+            if (task != null && task.getStatus() != completed) {
+                task.setStatus();
+                tasks.statusChanged(task);
+                changed.add(task);
+                records.add(JsonJournal.Record.of(JsonJournal.Op.STATUS, id, null, completed));
+            }
+        }
+        persist(records);
+        BULK_LATENCY.record(System.nanoTime() - start);
+        for (Task task : changed) {
+            TaskEvents.toggled(TaskEvent.Source.JSON, task);
+        }
+        return changed.size();
+    }
+
+    /**
+     * @return the number of completed tasks deleted
+     */
+    public synchronized int deleteCompleted() {
+        awaitLoadedForBulk();
+        return deleteAll(tasks.completedTasks());
+    }
+
+    /**
+     * Deletes the tasks created from {@code from} (inclusive) to {@code to} (exclusive).
+     *
+     * @return the number of tasks deleted
+     */
+    public synchronized int deleteCreatedBetween(Date from, Date to) {
+        awaitLoadedForBulk();
+        return deleteAll(tasks.createdBetween(from, to));
+    }
+
+    private int deleteAll(List<Task> victims) {
+        long start = System.nanoTime();
+        List<JsonJournal.Record> records = new ArrayList<>(victims.size());
+        for (Task task : victims) {
+            tasks.remove(task.getId());
+            records.add(JsonJournal.Record.of(JsonJournal.Op.DELETE, task.getId(), null, null));
+        }
+        persist(records);
+        BULK_LATENCY.record(System.nanoTime() - start);
+        for (Task task : victims) {
+            TaskEvents.deleted(TaskEvent.Source.JSON, task.getId());
+        }
+        return victims.size();
+    }
+
+    private void persist(List<JsonJournal.Record> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        if (journalMode) {
+            appendToJournal(records);
+        } else {
+            saveTasksToJson();
+        }
+    }
+
+    /**
+     * A set-based change must see every task, so with lazy loading it waits for the load to finish.
+     */
+    private void awaitLoadedForBulk() {
+        try {
+            while (!loaded) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted before tasks finished loading", e);
         }
     }
 
     /**
      * Find task by ID
      */
-    public Task findTaskById(UUID id) {
-        return taskList.stream()
-                .filter(task -> task.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+    public synchronized Task findTaskById(UUID id) {
+        long start = System.nanoTime();
+        Task task = tasks.get(id);
+        FIND_LATENCY.record(System.nanoTime() - start);
+        return task;
+    }
+
+    /**
+     * Get tasks that are not completed yet
+     */
+    public synchronized List<Task> getOpenTasks() {
+        long start = System.nanoTime();
+        List<Task> result = tasks.openTasks();
+        QUERY_LATENCY.record(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Get completed tasks
+     */
+    public synchronized List<Task> getCompletedTasks() {
+        long start = System.nanoTime();
+        List<Task> result = tasks.completedTasks();
+        QUERY_LATENCY.record(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Get tasks created from {@code from} (inclusive) to {@code to} (exclusive), oldest first
+     */
+    public synchronized List<Task> getTasksCreatedBetween(Date from, Date to) {
+        long start = System.nanoTime();
+        List<Task> result = tasks.createdBetween(from, to);
+        QUERY_LATENCY.record(System.nanoTime() - start);
+        return result;
     }
 
     /**
@@ -153,6 +542,9 @@ public class JsonDatabase {
     public void getData() {
         // This method exists for compatibility with XMLDatabase
         // Data is already loaded in constructor
-        System.out.println("JSON Database initialized with " + taskList.size() + " tasks.");
+        synchronized (this) {
+            Log.info("JSON Database initialized with " + tasks.size() + " tasks."
+                    + (loaded ? "" : " (still loading)"));
+        }
     }
 }
@@ -0,0 +1,250 @@
+package model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import logging.Log;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Append-only change log that sits next to the JSON snapshot.
+ *
+ * Every mutation is written as one compact JSON object per line. Records carry absolute values
+ * (the new title, the new status) rather than deltas, so replaying a record twice is harmless; this
+ * keeps recovery correct even if the process dies between writing a snapshot and truncating the log.
+ */
+class JsonJournal implements AutoCloseable {
+
+    enum Op { ADD, TITLE, DESCRIPTION, STATUS, DELETE }
+
+    /**
+     * One journal line. Only the fields relevant to {@link #op} are written.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class Record {
+        public Op op;
+        public UUID id;
+        public String value;
+        public Boolean completed;
+        public Task task;
+
+        static Record add(Task task) {
+            Record r = new Record();
+            r.op = Op.ADD;
+            r.id = task.getId();
+            r.task = task;
+            return r;
+        }
+
+        static Record of(Op op, UUID id, String value, Boolean completed) {
+            Record r = new Record();
+            r.op = op;
+            r.id = id;
+            r.value = value;
+            r.completed = completed;
+            return r;
+        }
+    }
+
+    /**
+     * The net effect of the log on one task: a replacing add, a delete, or field edits of a task in
+     * the snapshot. Folding records in log order gives the same result as replaying them one by one.
+     */
+    static final class Change {
+        private Task added;
+        private boolean deleted;
+        private boolean titleSet;
+        private String title;
+        private boolean descriptionSet;
+        private String description;
+        private Boolean completed;
+
+        private void fold(Record record) {
+            if (record.op == Op.ADD) {
+                added = record.task;
+                deleted = false;
+                return;
+            }
+            if (record.op == Op.DELETE) {
+                added = null;
+                deleted = true;
+                titleSet = descriptionSet = false;
+                completed = null;
+                return;
+            }
+            if (added != null) {
+                apply(added, record);
+            } else if (!deleted) {
+                switch (record.op) {
+                    case TITLE -> {
+                        titleSet = true;
+                        title = record.value;
+                    }
+                    case DESCRIPTION -> {
+                        descriptionSet = true;
+                        description = record.value;
+                    }
+                    case STATUS -> completed = record.completed;
+                    default -> { }
+                }
+            }
+        }
+
+        /**
+         * @return the task as the log leaves it, or null if the log deleted it
+         */
+        Task applyTo(Task stored) {
+            if (added != null) {
+                return added;
+            }
+            if (deleted) {
+                return null;
+            }
+            if (titleSet) {
+                stored.setTitle(title);
+            }
+            if (descriptionSet) {
+                stored.setDescription(description);
+            }
+            if (completed != null && stored.getStatus() != completed) {
+                stored.setStatus();
+            }
+            return stored;
+        }
+
+        /**
+         * @return the task this change adds, or null if it only edits or deletes
+         */
+        Task added() {
+            return added;
+        }
+
+        private static void apply(Task task, Record record) {
+            switch (record.op) {
+                case TITLE -> task.setTitle(record.value);
+                case DESCRIPTION -> task.setDescription(record.value);
+                case STATUS -> {
+                    if (task.getStatus() != record.completed) {
+                        task.setStatus();
+                    }
+                }
+                default -> { }
+            }
+        }
+    }
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private BufferedWriter out;
+    private int entries;
+
+    JsonJournal(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * Appends one record and flushes it to the OS.
+     */
+    void append(Record record) throws IOException {
+        appendAll(List.of(record));
+    }
+
+    /**
+     * Appends several records with a single flush, for set-based changes.
+     */
+    void appendAll(List<Record> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        if (out == null) {
+            out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        for (Record record : records) {
+            out.write(writer.writeValueAsString(record));
+            out.newLine();
+        }
+        out.flush();
+        entries += records.size();
+    }
+
+    /**
+     * Feeds every complete record in the log to {@code consumer}, oldest first.
+     * A torn last line (crash in the middle of an append) is skipped.
+     *
+     * @return the number of records replayed
+     */
+    int replay(Consumer<Record> consumer) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        int replayed = 0;
+        try (BufferedReader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Record record;
+                try {
+                    record = objectMapper.readValue(line, Record.class);
+                } catch (IOException e) {
+                    Log.warn("Skipping unreadable journal record: " + e.getMessage());
+                    continue;
+                }
+                consumer.accept(record);
+                replayed++;
+            }
+        }
+        entries = replayed;
+        return replayed;
+    }
+
+    /**
+     * Reads the log into the net change per task, in order of each task's first record, without
+     * touching a snapshot. Memory grows with the number of tasks the log mentions, not with the
+     * size of the snapshot.
+     */
+    Map<UUID, Change> fold() throws IOException {
+        Map<UUID, Change> changes = new LinkedHashMap<>();
+        replay(record -> changes.computeIfAbsent(record.id, id -> new Change()).fold(record));
+        return changes;
+    }
+
+    /**
+     * Empties the log after its records have been folded into a snapshot.
+     */
+    void reset() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+        entries = 0;
+    }
+
+    int size() {
+        return entries;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+}
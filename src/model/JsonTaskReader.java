@@ -0,0 +1,79 @@
+package model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a JSON array of tasks one element at a time with Jackson's token-level {@link JsonParser}.
+ *
+ * Only the task currently being bound is held in memory, so a file of any size can be read with
+ * a constant-size buffer. Typical use:
+ * <pre>
+ * try (JsonTaskReader reader = new JsonTaskReader(file, mapper)) {
+ *     Task task;
+ *     while ((task = reader.next()) != null) { ... }
+ * }
+ * </pre>
+ */
+public class JsonTaskReader implements Closeable {
+
+    private final JsonParser parser;
+    private final ObjectMapper objectMapper;
+    private boolean started;
+    private boolean finished;
+
+    public JsonTaskReader(File file, ObjectMapper objectMapper) throws IOException {
+        this(objectMapper.getFactory().createParser(file), objectMapper);
+    }
+
+    public JsonTaskReader(InputStream in, ObjectMapper objectMapper) throws IOException {
+        this(objectMapper.getFactory().createParser(in), objectMapper);
+    }
+
+    private JsonTaskReader(JsonParser parser, ObjectMapper objectMapper) {
+        this.parser = parser;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return the next task in the array, or null once the array (or an empty file) has been read
+     * @throws IOException if the content is not a JSON array of task objects
+     */
+    public Task next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!started) {
+            started = true;
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                finished = true;
+                return null;
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array of tasks but found " + first);
+            }
+        }
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY || token == null) {
+            finished = true;
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a task object but found " + token);
+        }
+        // Binds exactly this object and leaves the parser on its END_OBJECT
+        return objectMapper.readValue(parser, Task.class);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
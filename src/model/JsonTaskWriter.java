@@ -0,0 +1,51 @@
+package model;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes a JSON array of tasks one element at a time, the counterpart of {@link JsonTaskReader}.
+ * The output has the same shape and pretty printing as the snapshot {@link JsonDatabase} writes,
+ * but only the task being serialized is held in memory. Typical use:
+ * <pre>
+ * try (JsonTaskWriter writer = new JsonTaskWriter(out, mapper)) {
+ *     for (Task task : tasks) { writer.write(task); }
+ * }
+ * </pre>
+ */
+public class JsonTaskWriter implements Closeable {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter taskWriter;
+
+    public JsonTaskWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.useDefaultPrettyPrinter();
+        // Flushing after every element would turn each task into a write system call
+        this.taskWriter = objectMapper.writerFor(Task.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        generator.writeStartArray();
+    }
+
+    public void write(Task task) throws IOException {
+        taskWriter.writeValue(generator, task);
+    }
+
+    /**
+     * Ends the array and closes the stream.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            generator.writeEndArray();
+        } finally {
+            generator.close();
+        }
+    }
+}
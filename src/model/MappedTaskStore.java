@@ -0,0 +1,632 @@
+package model;
+
+import logging.Log;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Task store kept in memory-mapped files instead of on the heap ({@code tasks.mmap} by default,
+ * {@code -Dtaskapp.mmap.file} to change it). Three files share that base name:
+ *
+ * <pre>
+ * tasks.mmap        header, then one 64-byte slot per task (flags, id, date, text offsets/lengths)
+ * tasks.mmap.text   each task's title then description (UTF-8), appended, referenced by its slot
+ * tasks.mmap.index  open-addressing hash table: id -> slot number, linear probing
+ * </pre>
+ *
+ * Opening the store maps the files and reads the header; nothing is parsed and no {@link Task} is
+ * created. Slot {@code n} lives at byte {@code (n + 1) * 64}, so reaching a task from its slot
+ * number is one multiplication and finding a slot by id is one index probe in the common case.
+ * Deleted slots go on a free list and are reused by the next add. Tasks exist on the heap only while
+ * a caller holds the {@link Task} returned by {@link #findTaskById(UUID)} or {@link #forEachTask};
+ * the heap used by the store itself does not grow with the number of tasks.
+ *
+ * Changed or deleted text stays in the text file until it makes up more than half of it; the live
+ * text is then copied to a new file. The index is rebuilt from the slots, at twice the size, when it
+ * gets 70% full, and also on open if it is missing or does not match the slot file.
+ *
+ * Writes go to the page cache and reach the disk when the OS writes the pages back, or on
+ * {@link #force()} and {@link #close()}. The slot file grows in sparse 64 MB steps. The index caps
+ * the store at about 47 million tasks. Methods are synchronized like {@link JsonDatabase}.
+ */
+public class MappedTaskStore implements Closeable {
+
+    public static final String DEFAULT_FILE = System.getProperty("taskapp.mmap.file", "tasks.mmap");
+
+    private static final int SLOTS_MAGIC = 0x54534B4D; // "TSKM"
+    private static final int INDEX_MAGIC = 0x54534B49; // "TSKI"
+    private static final int FORMAT_VERSION = 1;
+
+    // Slot file header, at byte 0
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_HIGH_WATER = 8;   // int, slots ever used
+    private static final int H_FREE_HEAD = 12;   // int, first free slot or -1
+    private static final int H_LIVE = 16;        // int, live tasks
+    private static final int H_TEXT_END = 24;    // long, bytes of the text file in use
+    private static final int H_TEXT_GARBAGE = 32; // long, bytes of the text file no slot points to
+
+    // Slot layout
+    private static final int SLOT_SIZE = 64;
+    private static final int S_STATE = 0;        // byte, FREE or LIVE
+    private static final int S_FLAGS = 1;        // byte
+    private static final int S_NEXT_FREE = 4;    // int
+    private static final int S_MSB = 8;
+    private static final int S_LSB = 16;
+    private static final int S_CREATED = 24;
+    private static final int S_TEXT_OFFSET = 32; // title bytes, then description bytes
+    private static final int S_TITLE_LENGTH = 40;
+    private static final int S_DESCRIPTION_LENGTH = 44;
+
+    private static final byte FREE = 0;
+    private static final byte LIVE = 1;
+    private static final int COMPLETED = 1;
+    private static final int NULL_TITLE = 1 << 1;
+    private static final int NULL_DESCRIPTION = 1 << 2;
+    private static final int NULL_DATE = 1 << 3;
+
+    // Slot file is mapped in 64 MB segments (a million slots each) as it grows
+    private static final int SEGMENT_SHIFT = 26;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    // Index layout: 64-byte header, then 24-byte entries (msb, lsb, slot + 1; 0 empty, -1 deleted)
+    private static final int INDEX_HEADER = 64;
+    private static final int I_CAPACITY = 8;
+    private static final int I_USED = 12;        // live entries
+    private static final int I_DELETED = 16;     // deleted markers
+    private static final int ENTRY_SIZE = 24;
+    private static final int MIN_INDEX_CAPACITY = 1 << 16;
+    private static final int MAX_INDEX_CAPACITY = 1 << 26;
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+
+    private static final long MIN_TEXT_COMPACTION = 1 << 20;
+
+    // Per-operation latency, see metrics.Metrics
+    private static final LatencyHistogram OPEN_LATENCY = Metrics.histogram("MappedTaskStore", "open");
+    private static final LatencyHistogram ADD_LATENCY = Metrics.histogram("MappedTaskStore", "addTask");
+    private static final LatencyHistogram EDIT_LATENCY = Metrics.histogram("MappedTaskStore", "editTask");
+    private static final LatencyHistogram FIND_LATENCY = Metrics.histogram("MappedTaskStore", "findTaskById");
+
+    private final Path slotsFile;
+    private final Path textFile;
+    private final Path indexFile;
+    private final FileChannel slotsChannel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final MappedByteBuffer header;
+    private FileChannel text;
+    private MappedByteBuffer index;
+    private int indexMask;
+
+    public MappedTaskStore() {
+        this(Path.of(DEFAULT_FILE));
+    }
+
+    public MappedTaskStore(Path file) {
+        long start = System.nanoTime();
+        this.slotsFile = file;
+        this.textFile = Path.of(file + ".text");
+        this.indexFile = Path.of(file + ".index");
+        try {
+            boolean created = !Files.exists(file);
+            slotsChannel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            header = mapSegment(0);
+            if (created) {
+                header.putInt(H_MAGIC, SLOTS_MAGIC);
+                header.putInt(H_VERSION, FORMAT_VERSION);
+                header.putInt(H_FREE_HEAD, -1);
+            } else {
+                checkHeader(header.getInt(H_MAGIC), SLOTS_MAGIC, header.getInt(H_VERSION), file);
+            }
+            for (int s = 1; s <= segmentOf(highWater()); s++) {
+                mapSegment(s);
+            }
+            text = FileChannel.open(textFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            if (text.size() > textEnd()) {
+                text.truncate(textEnd()); // written by an add or edit whose slot was never updated
+            }
+            openIndex();
+            Log.info("Mapped %d tasks from %s", size(), file);
+        } catch (IOException e) {
+            OPEN_LATENCY.failed();
+            throw new UncheckedIOException("Cannot open mapped task store " + file, e);
+        } finally {
+            OPEN_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    private static void checkHeader(int magic, int expectedMagic, int version, Path file) throws IOException {
+        if (magic != expectedMagic) {
+            throw new IOException(file + " is not a mapped task store file");
+        }
+        if (version > FORMAT_VERSION) {
+            throw new IOException(file + " has format version " + version + ", this build reads up to "
+                    + FORMAT_VERSION);
+        }
+    }
+
+    //------------------------------ Header fields ----------------------------------------
+    private int highWater() {
+        return header.getInt(H_HIGH_WATER);
+    }
+
+    private long textEnd() {
+        return header.getLong(H_TEXT_END);
+    }
+
+    private long textGarbage() {
+        return header.getLong(H_TEXT_GARBAGE);
+    }
+
+    //------------------------------ Slots ------------------------------------------------
+    private MappedByteBuffer mapSegment(int segment) throws IOException {
+        MappedByteBuffer buffer = slotsChannel.map(FileChannel.MapMode.READ_WRITE,
+                (long) segment << SEGMENT_SHIFT, 1L << SEGMENT_SHIFT);
+        segments.add(buffer);
+        return buffer;
+    }
+
+    private static long slotPosition(int slot) {
+        return (slot + 1L) * SLOT_SIZE; // slot 0 starts after the header
+    }
+
+    private static int segmentOf(int slot) {
+        return (int) (slotPosition(slot) >>> SEGMENT_SHIFT);
+    }
+
+    private MappedByteBuffer segment(int slot) {
+        return segments.get(segmentOf(slot));
+    }
+
+    private static int base(int slot) {
+        return (int) (slotPosition(slot) & SEGMENT_MASK);
+    }
+
+    private int allocateSlot() throws IOException {
+        int free = header.getInt(H_FREE_HEAD);
+        if (free >= 0) {
+            header.putInt(H_FREE_HEAD, segment(free).getInt(base(free) + S_NEXT_FREE));
+            return free;
+        }
+        int slot = highWater();
+        if (segmentOf(slot) == segments.size()) {
+            mapSegment(segments.size());
+        }
+        header.putInt(H_HIGH_WATER, slot + 1);
+        return slot;
+    }
+
+    private void freeSlot(int slot) {
+        ByteBuffer s = segment(slot);
+        int b = base(slot);
+        s.put(b + S_STATE, FREE);
+        s.putInt(b + S_NEXT_FREE, header.getInt(H_FREE_HEAD));
+        header.putInt(H_FREE_HEAD, slot);
+    }
+
+    private Task readTask(int slot) throws IOException {
+        ByteBuffer s = segment(slot);
+        int b = base(slot);
+        int flags = s.get(b + S_FLAGS);
+        UUID id = new UUID(s.getLong(b + S_MSB), s.getLong(b + S_LSB));
+        int titleLength = s.getInt(b + S_TITLE_LENGTH);
+        int descriptionLength = s.getInt(b + S_DESCRIPTION_LENGTH);
+        byte[] bytes = readText(s.getLong(b + S_TEXT_OFFSET), titleLength + descriptionLength);
+        String title = (flags & NULL_TITLE) != 0 ? null
+                : new String(bytes, 0, titleLength, StandardCharsets.UTF_8);
+        String description = (flags & NULL_DESCRIPTION) != 0 ? null
+                : new String(bytes, titleLength, descriptionLength, StandardCharsets.UTF_8);
+        Date date = (flags & NULL_DATE) != 0 ? null : new Date(s.getLong(b + S_CREATED));
+        return new Task(title, description, date, (flags & COMPLETED) != 0, id);
+    }
+
+    private void writeTask(int slot, Task task) throws IOException {
+        ByteBuffer s = segment(slot);
+        int b = base(slot);
+        int flags = (task.getStatus() ? COMPLETED : 0)
+                | (task.getTitle() == null ? NULL_TITLE : 0)
+                | (task.getDescription() == null ? NULL_DESCRIPTION : 0)
+                | (task.getDate() == null ? NULL_DATE : 0);
+        s.putLong(b + S_MSB, task.getId().getMostSignificantBits());
+        s.putLong(b + S_LSB, task.getId().getLeastSignificantBits());
+        s.putLong(b + S_CREATED, task.getDate() == null ? 0 : task.getDate().getTime());
+        writeText(slot, task.getTitle(), task.getDescription());
+        s.put(b + S_FLAGS, (byte) flags);
+        s.put(b + S_STATE, LIVE);
+    }
+
+    private void setFlag(int slot, int flag, boolean on) {
+        ByteBuffer s = segment(slot);
+        int b = base(slot);
+        int flags = s.get(b + S_FLAGS);
+        s.put(b + S_FLAGS, (byte) (on ? flags | flag : flags & ~flag));
+    }
+
+    //------------------------------ Text -------------------------------------------------
+    private byte[] readText(long offset, int length) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        while (bytes.hasRemaining()) {
+            if (text.read(bytes, offset + bytes.position()) < 0) {
+                throw new IOException("Text file " + textFile + " is shorter than its slots say");
+            }
+        }
+        return bytes.array();
+    }
+
+    /**
+     * Appends title and description to the text file in one write and points the slot at them.
+     */
+    private void writeText(int slot, String title, String description) throws IOException {
+        ByteBuffer s = segment(slot);
+        int b = base(slot);
+        byte[] titleBytes = title == null ? new byte[0] : title.getBytes(StandardCharsets.UTF_8);
+        byte[] descriptionBytes = description == null ? new byte[0] : description.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer source = ByteBuffer.allocate(titleBytes.length + descriptionBytes.length)
+                .put(titleBytes).put(descriptionBytes).flip();
+        long offset = textEnd();
+        while (source.hasRemaining()) {
+            text.write(source, offset + source.position());
+        }
+        header.putLong(H_TEXT_END, offset + source.limit());
+        s.putLong(b + S_TEXT_OFFSET, offset);
+        s.putInt(b + S_TITLE_LENGTH, titleBytes.length);
+        s.putInt(b + S_DESCRIPTION_LENGTH, descriptionBytes.length);
+    }
+
+    private int textLength(int slot) {
+        ByteBuffer s = segment(slot);
+        int b = base(slot);
+        return s.getInt(b + S_TITLE_LENGTH) + s.getInt(b + S_DESCRIPTION_LENGTH);
+    }
+
+    private void discardText(int slot) {
+        header.putLong(H_TEXT_GARBAGE, textGarbage() + textLength(slot));
+    }
+
+    private void compactTextIfNeeded() throws IOException {
+        long garbage = textGarbage();
+        if (garbage > MIN_TEXT_COMPACTION && garbage * 2 > textEnd()) {
+            compactText();
+        }
+    }
+
+    /**
+     * Copies the text of live tasks to a new text file, dropping text no slot refers to any more.
+     * The slots keep pointing into the old file until the new one has been moved into place and
+     * opened, so a failure on the way leaves the store as it was.
+     */
+    public synchronized void compactText() throws IOException {
+        Path tmp = Path.of(textFile + ".tmp");
+        long before = textEnd();
+        int highWater = highWater();
+        long[] offsets = new long[highWater]; // new text offset of every live slot
+        long position = 0;
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int slot = 0; slot < highWater; slot++) {
+                ByteBuffer s = segment(slot);
+                int b = base(slot);
+                if (s.get(b + S_STATE) != LIVE) {
+                    continue;
+                }
+                long from = s.getLong(b + S_TEXT_OFFSET);
+                int length = textLength(slot);
+                for (long copied = 0; copied < length; ) {
+                    copied += text.transferTo(from + copied, length - copied, out);
+                }
+                offsets[slot] = position;
+                position += length;
+            }
+            out.force(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, textFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // The old channel still reads the replaced file until the new one is open
+        FileChannel compacted = FileChannel.open(textFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        for (int slot = 0; slot < highWater; slot++) {
+            ByteBuffer s = segment(slot);
+            int b = base(slot);
+            if (s.get(b + S_STATE) == LIVE) {
+                s.putLong(b + S_TEXT_OFFSET, offsets[slot]);
+            }
+        }
+        FileChannel old = text;
+        text = compacted;
+        header.putLong(H_TEXT_END, position);
+        header.putLong(H_TEXT_GARBAGE, 0);
+        old.close();
+        Log.debug("Compacted %s from %d to %d bytes", textFile, before, position);
+    }
+
+    //------------------------------ Index ------------------------------------------------
+    private void openIndex() throws IOException {
+        if (Files.exists(indexFile)) {
+            try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                if (channel.size() >= INDEX_HEADER) {
+                    MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                    int capacity = mapped.getInt(I_CAPACITY);
+                    if (mapped.getInt(H_MAGIC) == INDEX_MAGIC && mapped.getInt(H_VERSION) == FORMAT_VERSION
+                            && Integer.bitCount(capacity) == 1
+                            && channel.size() == INDEX_HEADER + (long) capacity * ENTRY_SIZE
+                            && mapped.getInt(I_USED) == size()) {
+                        index = mapped;
+                        indexMask = capacity - 1;
+                        return;
+                    }
+                }
+            }
+            Log.warn("Index %s does not match %s, rebuilding it", indexFile, slotsFile);
+        }
+        rebuildIndex(MIN_INDEX_CAPACITY);
+    }
+
+    /**
+     * Writes a new index holding every live slot, sized to stay under 70% full.
+     */
+    private void rebuildIndex(int minCapacity) throws IOException {
+        int capacity = MIN_INDEX_CAPACITY;
+        while (capacity < minCapacity || capacity * 0.7 < size()) {
+            capacity <<= 1;
+        }
+        if (capacity > MAX_INDEX_CAPACITY) {
+            throw new IOException("Mapped task store index cannot hold " + size() + " tasks");
+        }
+        Path tmp = Path.of(indexFile + ".tmp");
+        Files.deleteIfExists(tmp);
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // A new file reads as zeros, so every entry starts EMPTY
+            index = channel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER + (long) capacity * ENTRY_SIZE);
+        }
+        indexMask = capacity - 1;
+        index.putInt(H_MAGIC, INDEX_MAGIC);
+        index.putInt(H_VERSION, FORMAT_VERSION);
+        index.putInt(I_CAPACITY, capacity);
+        int highWater = highWater();
+        for (int slot = 0; slot < highWater; slot++) {
+            ByteBuffer s = segment(slot);
+            int b = base(slot);
+            if (s.get(b + S_STATE) == LIVE) {
+                indexInsert(s.getLong(b + S_MSB), s.getLong(b + S_LSB), slot);
+            }
+        }
+        header.putInt(H_LIVE, index.getInt(I_USED)); // corrects a count left behind by a crash
+        Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = msb ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int entryPosition(int bucket) {
+        return INDEX_HEADER + bucket * ENTRY_SIZE;
+    }
+
+    /**
+     * @return the bucket holding this id, or -1
+     */
+    private int indexFind(long msb, long lsb) {
+        for (int bucket = hash(msb, lsb) & indexMask; ; bucket = (bucket + 1) & indexMask) {
+            int p = entryPosition(bucket);
+            int slot = index.getInt(p + 16);
+            if (slot == EMPTY) {
+                return -1;
+            }
+            if (slot != DELETED && index.getLong(p) == msb && index.getLong(p + 8) == lsb) {
+                return bucket;
+            }
+        }
+    }
+
+    private void indexInsert(long msb, long lsb, int slot) {
+        int bucket = hash(msb, lsb) & indexMask;
+        while (index.getInt(entryPosition(bucket) + 16) > EMPTY) {
+            bucket = (bucket + 1) & indexMask;
+        }
+        int p = entryPosition(bucket);
+        if (index.getInt(p + 16) == DELETED) {
+            index.putInt(I_DELETED, index.getInt(I_DELETED) - 1);
+        }
+        index.putLong(p, msb);
+        index.putLong(p + 8, lsb);
+        index.putInt(p + 16, slot + 1);
+        index.putInt(I_USED, index.getInt(I_USED) + 1);
+    }
+
+    private void indexRemove(int bucket) {
+        index.putInt(entryPosition(bucket) + 16, DELETED);
+        index.putInt(I_USED, index.getInt(I_USED) - 1);
+        index.putInt(I_DELETED, index.getInt(I_DELETED) + 1);
+    }
+
+    private void growIndexIfNeeded() throws IOException {
+        int capacity = indexMask + 1;
+        if (index.getInt(I_USED) + index.getInt(I_DELETED) + 1 > capacity * 0.7) {
+            // Mostly deleted markers: rebuild at the same size, otherwise double
+            rebuildIndex(index.getInt(I_USED) + 1 > capacity * 0.35 ? capacity << 1 : capacity);
+        }
+    }
+
+    /**
+     * @return the slot holding this id, or -1
+     */
+    private int slotOf(UUID id) {
+        int bucket = indexFind(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        return bucket < 0 ? -1 : index.getInt(entryPosition(bucket) + 16) - 1;
+    }
+
+    //------------------------------ Operations -------------------------------------------
+    /**
+     * Adds a task, replacing any task with the same id.
+     */
+    public synchronized void addTask(Task task) {
+        long start = System.nanoTime();
+        try {
+            int slot = slotOf(task.getId());
+            if (slot >= 0) {
+                discardText(slot);
+                writeTask(slot, task);
+                compactTextIfNeeded();
+                return;
+            }
+            growIndexIfNeeded();
+            slot = allocateSlot();
+            writeTask(slot, task);
+            indexInsert(task.getId().getMostSignificantBits(), task.getId().getLeastSignificantBits(), slot);
+            header.putInt(H_LIVE, size() + 1);
+        } catch (IOException e) {
+            ADD_LATENCY.failed();
+            throw new UncheckedIOException(e);
+        } finally {
+            ADD_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Edits the stored task with this task's id, and the given object to match.
+     *
+     * @param editOption 1 edit title, 2 edit description, 3 toggle status, 4 delete
+     */
+    public synchronized void editTask(Task task, int editOption, String newValue) {
+        long start = System.nanoTime();
+        try {
+            UUID id = task.getId();
+            int bucket = indexFind(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (bucket < 0) {
+                Log.warn("Task not found: %s", id);
+                return;
+            }
+            int slot = index.getInt(entryPosition(bucket) + 16) - 1;
+            switch (editOption) {
+                case 1, 2 -> {
+                    // Title and description are stored together, so both are written again
+                    Task stored = readTask(slot);
+                    if (editOption == 1) {
+                        task.setTitle(newValue);
+                        stored.setTitle(newValue);
+                    } else {
+                        task.setDescription(newValue);
+                        stored.setDescription(newValue);
+                    }
+                    discardText(slot);
+                    writeText(slot, stored.getTitle(), stored.getDescription());
+                    setFlag(slot, NULL_TITLE, stored.getTitle() == null);
+                    setFlag(slot, NULL_DESCRIPTION, stored.getDescription() == null);
+                }
+                case 3 -> {
+                    task.setStatus();
+                    setFlag(slot, COMPLETED, task.getStatus());
+                }
+                case 4 -> {
+                    discardText(slot);
+                    indexRemove(bucket);
+                    freeSlot(slot);
+                    header.putInt(H_LIVE, size() - 1);
+                }
+                default -> {
+                    Log.warn("Invalid edit option: %d", editOption);
+                    return;
+                }
+            }
+            compactTextIfNeeded();
+        } catch (IOException e) {
+            EDIT_LATENCY.failed();
+            throw new UncheckedIOException(e);
+        } finally {
+            EDIT_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return a copy of the stored task, or null
+     */
+    public synchronized Task findTaskById(UUID id) {
+        long start = System.nanoTime();
+        try {
+            int slot = slotOf(id);
+            return slot < 0 ? null : readTask(slot);
+        } catch (IOException e) {
+            FIND_LATENCY.failed();
+            throw new UncheckedIOException(e);
+        } finally {
+            FIND_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    public synchronized boolean contains(UUID id) {
+        return slotOf(id) >= 0;
+    }
+
+    /**
+     * Passes a copy of every task, in slot order, to the consumer. Only the task being visited is
+     * on the heap.
+     */
+    public synchronized void forEachTask(Consumer<Task> consumer) {
+        try {
+            int highWater = highWater();
+            for (int slot = 0; slot < highWater; slot++) {
+                if (segment(slot).get(base(slot) + S_STATE) == LIVE) {
+                    consumer.accept(readTask(slot));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return copies of all tasks; prefer {@link #forEachTask} for large stores
+     */
+    public synchronized List<Task> getTaskList() {
+        List<Task> tasks = new ArrayList<>(size());
+        forEachTask(tasks::add);
+        return tasks;
+    }
+
+    public synchronized int size() {
+        return header.getInt(H_LIVE);
+    }
+
+    /**
+     * Writes all changes to disk.
+     */
+    public synchronized void force() throws IOException {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        index.force();
+        text.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        force();
+        text.close();
+        slotsChannel.close();
+    }
+}
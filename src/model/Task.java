@@ -26,6 +26,10 @@ public class Task {
     @JsonProperty("id")
     private final UUID id;
 
+    // Row version in Derby, see TaskDAO; not part of the JSON or XML files
+    @JsonIgnore
+    private int version;
+
     //this constructor will be used to create new tasks by user.
     public Task(String title, String description){
         this.title=title;
@@ -69,6 +73,8 @@ public class Task {
     @JsonIgnore
     public boolean getStatus() {return isCompleted;}
     public UUID getId(){return id;}
+    @JsonIgnore
+    public int getVersion() {return version;}
 
     public void setStatus(){
         isCompleted =!isCompleted;
@@ -76,4 +82,5 @@ public class Task {
     }
     public void setTitle(String title){this.title = title;}
     public void setDescription(String description){this.description = description;}
+    public void setVersion(int version) {this.version = version;}
 }
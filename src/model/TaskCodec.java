@@ -0,0 +1,272 @@
+package model;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Versioned binary encoding of {@link Task}s.
+ *
+ * <pre>
+ * file    := magic "TSKB" (4 bytes), format version (1 byte), record*
+ * record  := flags (1 byte), id (2 longs: most then least significant bits), [body]
+ * body    := created date (long, epoch millis), title (string), description (string)
+ * string  := UTF-8 byte length (unsigned varint), UTF-8 bytes
+ * flags   := bit 0 completed, bit 1 tombstone (no body follows), bit 2 null title,
+ *            bit 3 null description, bit 4 null date
+ * </pre>
+ *
+ * All numbers are big-endian. A record is 27 bytes plus the text, against roughly 200 bytes of
+ * pretty-printed JSON or XML for the same fields, and decoding needs no tokenizing or date parsing.
+ * Readers refuse files with a newer format version.
+ *
+ * Both directions encode straight into a 64 KB heap {@link ByteBuffer} and move whole buffers to
+ * and from the stream, so the per-field cost is an array store rather than a stream call.
+ */
+public final class TaskCodec {
+
+    public static final int MAGIC = 0x54534B42; // "TSKB"
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int COMPLETED = 1;
+    private static final int TOMBSTONE = 1 << 1;
+    private static final int NULL_TITLE = 1 << 2;
+    private static final int NULL_DESCRIPTION = 1 << 3;
+    private static final int NULL_DATE = 1 << 4;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private TaskCodec() {
+    }
+
+    //------------------------------ Writing ----------------------------------------------
+    /**
+     * Streams records to an output stream. The header is written on construction.
+     */
+    public static final class Writer implements Closeable {
+        private final OutputStream out;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        public Writer(OutputStream out) throws IOException {
+            this(out, true);
+        }
+
+        /**
+         * @param writeHeader false when appending to a stream that already has its header
+         */
+        public Writer(OutputStream out, boolean writeHeader) throws IOException {
+            this.out = out;
+            if (writeHeader) {
+                buffer.putInt(MAGIC);
+                buffer.put((byte) FORMAT_VERSION);
+            }
+        }
+
+        public void write(Task task) throws IOException {
+            int flags = (task.getStatus() ? COMPLETED : 0)
+                    | (task.getTitle() == null ? NULL_TITLE : 0)
+                    | (task.getDescription() == null ? NULL_DESCRIPTION : 0)
+                    | (task.getDate() == null ? NULL_DATE : 0);
+            ensure(1 + 16 + 8);
+            buffer.put((byte) flags);
+            putId(task.getId());
+            buffer.putLong(task.getDate() == null ? 0 : task.getDate().getTime());
+            writeString(task.getTitle());
+            writeString(task.getDescription());
+        }
+
+        /**
+         * Writes a record saying the task with this id was deleted.
+         */
+        public void writeTombstone(UUID id) throws IOException {
+            ensure(1 + 16);
+            buffer.put((byte) TOMBSTONE);
+            putId(id);
+        }
+
+        private void putId(UUID id) {
+            buffer.putLong(id.getMostSignificantBits());
+            buffer.putLong(id.getLeastSignificantBits());
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int length = bytes.length;
+            ensure(5);
+            while ((length & ~0x7F) != 0) {
+                buffer.put((byte) ((length & 0x7F) | 0x80));
+                length >>>= 7;
+            }
+            buffer.put((byte) length);
+            if (bytes.length > buffer.remaining()) {
+                drain();
+                if (bytes.length > buffer.capacity()) {
+                    out.write(bytes);
+                    return;
+                }
+            }
+            buffer.put(bytes);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            out.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+
+        public void flush() throws IOException {
+            drain();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    //------------------------------ Reading ----------------------------------------------
+    /**
+     * Streams records from an input stream, checking the header on construction.
+     */
+    public static final class Reader implements Closeable {
+        private final InputStream in;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private byte[] text = new byte[256]; // reused for every string
+        private boolean deleted;
+
+        public Reader(InputStream in) throws IOException {
+            this.in = in;
+            buffer.limit(0);
+            if (!fill(5)) {
+                throw new IOException("Not a binary task file: too short");
+            }
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a binary task file: bad magic number");
+            }
+            int version = buffer.get() & 0xFF;
+            if (version > FORMAT_VERSION) {
+                throw new IOException("Binary task file has format version " + version
+                        + ", this build reads up to " + FORMAT_VERSION);
+            }
+        }
+
+        /**
+         * @return the next record, or null at the end of the stream. For a tombstone only the id
+         *         is set and {@link #isDeleted()} returns true until the next call.
+         * @throws EOFException if the stream ends in the middle of a record
+         */
+        public Task next() throws IOException {
+            if (!fill(1)) {
+                return null;
+            }
+            int flags = buffer.get() & 0xFF;
+            deleted = (flags & TOMBSTONE) != 0;
+            require(deleted ? 16 : 16 + 8);
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            if (deleted) {
+                return new Task(null, null, null, false, id);
+            }
+            long millis = buffer.getLong();
+            String title = (flags & NULL_TITLE) != 0 ? null : readString();
+            String description = (flags & NULL_DESCRIPTION) != 0 ? null : readString();
+            return new Task(title, description, (flags & NULL_DATE) != 0 ? null : new Date(millis),
+                    (flags & COMPLETED) != 0, id);
+        }
+
+        /**
+         * @return true if the record last returned by {@link #next()} is a tombstone
+         */
+        public boolean isDeleted() {
+            return deleted;
+        }
+
+        private String readString() throws IOException {
+            int length = 0;
+            for (int shift = 0; ; shift += 7) {
+                require(1);
+                int b = buffer.get() & 0xFF;
+                // An int takes at most five bytes, so the fifth must not continue
+                if (shift == 28 && (b & 0x80) != 0) {
+                    throw new IOException("Corrupt string length in binary task file");
+                }
+                length |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            if (length < 0) {
+                throw new IOException("Corrupt string length in binary task file: " + length);
+            }
+            if (length <= buffer.remaining()) {
+                if (length > text.length) {
+                    text = Arrays.copyOf(text, Math.max(length, text.length * 2));
+                }
+                buffer.get(text, 0, length);
+                return new String(text, 0, length, StandardCharsets.UTF_8);
+            }
+            // Longer than what is left in the buffer: read the rest straight from the stream. A
+            // corrupt length must not allocate its full size up front, so the rest is read before
+            // the string is assembled; readNBytes grows its result only as data arrives.
+            int buffered = buffer.remaining();
+            byte[] rest = in.readNBytes(length - buffered);
+            if (rest.length < length - buffered) {
+                throw new EOFException("Binary task file ends inside a string");
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes, 0, buffered);
+            System.arraycopy(rest, 0, bytes, buffered, rest.length);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void require(int bytes) throws IOException {
+            if (!fill(bytes)) {
+                throw new EOFException("Binary task file ends inside a record");
+            }
+        }
+
+        /**
+         * Makes at least {@code bytes} bytes available in the buffer, reading more if needed.
+         *
+         * @return false if the stream ended first
+         */
+        private boolean fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return true;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                int read = in.read(buffer.array(), buffer.position(), buffer.remaining());
+                if (read < 0) {
+                    break;
+                }
+                buffer.position(buffer.position() + read);
+            }
+            buffer.flip();
+            return buffer.remaining() >= bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -4,121 +4,765 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import database.DatabaseConfig;
+import database.UuidBytes;
+import logging.Log;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
 
 import static database.DatabaseManager.getConnection;
 
 public class TaskDAO {
 
-    public void save(Task task){
-        String insertSQL = "INSERT INTO tasks (id, title,description, created_date, is_completed) VALUES (?, ?, ?, CURRENT_DATE, FALSE)";
+    private static final String INSERT_SQL =
+            "INSERT INTO tasks (id, id_bin, title, description, created_date, is_completed, version) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Per-operation latency, see metrics.Metrics
+    private static final LatencyHistogram SAVE_LATENCY = Metrics.histogram("TaskDAO", "save");
+    private static final LatencyHistogram SAVE_ALL_LATENCY = Metrics.histogram("TaskDAO", "saveAll");
+    private static final LatencyHistogram LIST_ALL_LATENCY = Metrics.histogram("TaskDAO", "listAllTasks");
+    private static final LatencyHistogram FOR_EACH_LATENCY = Metrics.histogram("TaskDAO", "forEachTask");
+    private static final LatencyHistogram LIST_PAGE_LATENCY = Metrics.histogram("TaskDAO", "listTasksPage");
+    private static final LatencyHistogram FIND_BY_ID_LATENCY = Metrics.histogram("TaskDAO", "findById");
+    private static final LatencyHistogram HAS_TASKS_LATENCY = Metrics.histogram("TaskDAO", "hasTasks");
+    private static final LatencyHistogram COUNT_LATENCY = Metrics.histogram("TaskDAO", "countTasks");
+    private static final LatencyHistogram EDIT_TITLE_LATENCY = Metrics.histogram("TaskDAO", "editTitle");
+    private static final LatencyHistogram CHANGE_DESCRIPTION_LATENCY = Metrics.histogram("TaskDAO", "changeDescription");
+    private static final LatencyHistogram TOGGLE_STATUS_LATENCY = Metrics.histogram("TaskDAO", "toggleTaskStatus");
+    private static final LatencyHistogram DELETE_LATENCY = Metrics.histogram("TaskDAO", "deleteTask");
+    private static final LatencyHistogram UPDATE_ALL_LATENCY = Metrics.histogram("TaskDAO", "updateAll");
+    private static final LatencyHistogram DELETE_ALL_LATENCY = Metrics.histogram("TaskDAO", "deleteAllById");
+    private static final LatencyHistogram UPDATE_LATENCY = Metrics.histogram("TaskDAO", "update");
+    private static final LatencyHistogram SET_COMPLETED_LATENCY = Metrics.histogram("TaskDAO", "setCompleted");
+    private static final LatencyHistogram DELETE_COMPLETED_LATENCY = Metrics.histogram("TaskDAO", "deleteCompleted");
+    private static final LatencyHistogram DELETE_CREATED_LATENCY = Metrics.histogram("TaskDAO", "deleteCreatedBetween");
 
+    // Versioned updates that found the row changed by another writer, over all methods and attempts
+    private static final LongAdder UPDATE_CONFLICTS = new LongAdder();
+
+    /**
+     * Inserts one task.
+     *
+     * @throws RuntimeException wrapping the SQLException if the insert fails
+     */
+    public void save(Task task){
+        long start = System.nanoTime();
         try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(insertSQL)) {
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
 
-            pstmt.setString(1, UUID.randomUUID().toString());
-            pstmt.setString(2, task.getTitle());
-            pstmt.setString(3, task.getDescription());
+            bindInsert(pstmt, task);
             int rowsAffected = pstmt.executeUpdate();
             if (rowsAffected > 0) {
-                System.out.println("✓ Task inserted successfully: " + task.getTitle());
+                Log.debug("✓ Task inserted successfully: %s", task.getId());
+                TaskEvents.added(TaskEvent.Source.DERBY, task);
             }
 
         } catch (SQLException e) {
-            System.err.println("Error inserting task: " + e.getMessage());
+            SAVE_LATENCY.failed();
+            Log.error("Error inserting task: " + e.getMessage());
+            throw new RuntimeException(e);
+        } finally {
+            SAVE_LATENCY.record(System.nanoTime() - start);
         }
     }
 
+    /**
+     * Inserts all tasks using JDBC batching, with the default batch size from {@link DatabaseConfig}.
+     *
+     * @see #saveAll(Collection, int)
+     */
+    public int saveAll(Collection<Task> tasks) {
+        return saveAll(tasks, DatabaseConfig.INSERT_BATCH_SIZE);
+    }
+
+    /**
+     * Inserts all tasks in chunks of {@code batchSize}. Each chunk is sent as one JDBC batch and
+     * committed as one transaction, so a failure rolls back only the chunk it happened in; chunks
+     * committed before it stay in the table. The tasks keep their own ids, dates and status.
+     *
+     * @param tasks     the tasks to insert
+     * @param batchSize rows per batch and per transaction
+     * @return the number of rows inserted
+     */
+    public int saveAll(Collection<Task> tasks, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        int inserted = 0;
+        int chunk = 0;
+        long start = System.nanoTime();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            conn.setAutoCommit(false);
+            Iterator<Task> it = tasks.iterator();
+            boolean announce = TaskEvents.hasSubscribers();
+            List<Task> committed = new ArrayList<>(announce ? batchSize : 0); // announced once the chunk commits
+            while (it.hasNext()) {
+                long chunkStart = System.nanoTime();
+                int rows = 0;
+                while (rows < batchSize && it.hasNext()) {
+                    Task task = it.next();
+                    bindInsert(pstmt, task);
+                    pstmt.addBatch();
+                    if (announce) {
+                        committed.add(task);
+                    }
+                    rows++;
+                }
+                try {
+                    pstmt.executeBatch();
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+                inserted += rows;
+                chunk++;
+                for (Task task : committed) {
+                    TaskEvents.added(TaskEvent.Source.DERBY, task);
+                }
+                committed.clear();
+                double millis = (System.nanoTime() - chunkStart) / 1_000_000.0;
+                Log.info("✓ Chunk %d: %d tasks in %.1f ms (%.0f tasks/s)",
+                        chunk, rows, millis, rows / Math.max(millis, 0.001) * 1000);
+            }
+            conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            SAVE_ALL_LATENCY.failed();
+            throw new RuntimeException("Bulk insert failed after " + inserted + " tasks", e);
+        } finally {
+            SAVE_ALL_LATENCY.record(System.nanoTime() - start);
+        }
+        return inserted;
+    }
+
+    /**
+     * @return the creation time as a plain {@link Date}, with the milliseconds it was saved with
+     */
+    private static Date createdDate(ResultSet rs) throws SQLException {
+        Timestamp created = rs.getTimestamp("created_date");
+        return created == null ? null : new Date(created.getTime());
+    }
+
+    private static void bindInsert(PreparedStatement pstmt, Task task) throws SQLException {
+        pstmt.setString(1, task.getId().toString());
+        pstmt.setBytes(2, UuidBytes.toBytes(task.getId()));
+        pstmt.setString(3, task.getTitle());
+        pstmt.setString(4, task.getDescription());
+        pstmt.setTimestamp(5, new Timestamp(task.getDate().getTime()));
+        pstmt.setBoolean(6, task.getStatus());
+        pstmt.setInt(7, task.getVersion());
+    }
+
     public List<Task> listAllTasks(){
         List<Task> taskList = new ArrayList<>();
-        String selectAllSQL = "SELECT id, title, description, created_date, is_completed FROM tasks";
+        String selectAllSQL = "SELECT id_bin, title, description, created_date, is_completed, version FROM tasks";
+      long start = System.nanoTime();
       try(Connection conn = getConnection();
-          PreparedStatement pstmt = conn.prepareStatement(selectAllSQL);)
+          PreparedStatement pstmt = conn.prepareStatement(selectAllSQL);
+          ResultSet rs = pstmt.executeQuery())
       {
-          ResultSet rs = pstmt.executeQuery();
           while(rs.next()){
-              String id = rs.getString("id");
+              UUID id = UuidBytes.fromBytes(rs.getBytes("id_bin"));
               String title  = rs.getString("title");
               String description = rs.getString("description");
-              Date date = rs.getDate("created_date");
+              Date date = createdDate(rs);
               boolean isCompleted = rs.getBoolean("is_completed");
-              Task task  = new Task(title,description,date,isCompleted,UUID.fromString(id)
+              Task task  = new Task(title,description,date,isCompleted,id
               );
+              task.setVersion(rs.getInt("version"));
               taskList.add(task);
 
           }
       } catch (SQLException e) {
+          LIST_ALL_LATENCY.failed();
           throw new RuntimeException(e);
+      } finally {
+          LIST_ALL_LATENCY.record(System.nanoTime() - start);
       }
       return taskList;
     }
-    public void editTitle(Task task, String newValue){
-        String sql = "UPDATE tasks SET title = ? WHERE id = ?";
 
+    /**
+     * Streams every task, description included, to {@code action} one row at a time, so the whole
+     * table never has to be held in a list. Used to build in-memory indexes at startup.
+     */
+    public void forEachTask(Consumer<Task> action) {
+        String sql = "SELECT id_bin, title, description, created_date, is_completed, version FROM tasks";
+        long start = System.nanoTime();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setFetchSize(DatabaseConfig.INSERT_BATCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Task task = new Task(rs.getString("title"), rs.getString("description"),
+                            createdDate(rs), rs.getBoolean("is_completed"),
+                            UuidBytes.fromBytes(rs.getBytes("id_bin")));
+                    task.setVersion(rs.getInt("version"));
+                    action.accept(task);
+                }
+            }
+        } catch (SQLException e) {
+            FOR_EACH_LATENCY.failed();
+            throw new RuntimeException(e);
+        } finally {
+            FOR_EACH_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Like {@link #forEachTask(Consumer)} but reads only id, creation date and status; the tasks
+     * passed to {@code action} have a null title and description. For rebuilding counters.
+     */
+    public void forEachTaskSummary(Consumer<Task> action) {
+        String sql = "SELECT id_bin, created_date, is_completed FROM tasks";
+        long start = System.nanoTime();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setFetchSize(DatabaseConfig.INSERT_BATCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(new Task(null, null, createdDate(rs), rs.getBoolean("is_completed"),
+                            UuidBytes.fromBytes(rs.getBytes("id_bin"))));
+                }
+            }
+        } catch (SQLException e) {
+            FOR_EACH_LATENCY.failed();
+            throw new RuntimeException(e);
+        } finally {
+            FOR_EACH_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns one page of tasks ordered by (created_date, id_bin), starting right after {@code after}.
+     * Only the columns needed for listing are read; the description CLOB is left out and the
+     * returned tasks have a null description. Use {@link #findById(UUID)} to load a full task.
+     *
+     * @param after    the last task of the previous page, or null for the first page
+     * @param pageSize maximum number of tasks on the page
+     */
+    public TaskPage listTasksPage(Task after, int pageSize) {
+        String firstPageSQL = "SELECT id_bin, title, created_date, is_completed, version FROM tasks "
+                + "ORDER BY created_date, id_bin FETCH FIRST ? ROWS ONLY";
+        String nextPageSQL = "SELECT id_bin, title, created_date, is_completed, version FROM tasks "
+                + "WHERE created_date > ? OR (created_date = ? AND id_bin > ?) "
+                + "ORDER BY created_date, id_bin FETCH FIRST ? ROWS ONLY";
+
+        List<Task> tasks = new ArrayList<>(pageSize);
+        boolean hasNext = false;
+        long start = System.nanoTime();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(after == null ? firstPageSQL : nextPageSQL)) {
+            int i = 1;
+            if (after != null) {
+                Timestamp afterDate = new Timestamp(after.getDate().getTime());
+                pstmt.setTimestamp(i++, afterDate);
+                pstmt.setTimestamp(i++, afterDate);
+                pstmt.setBytes(i++, UuidBytes.toBytes(after.getId()));
+            }
+            // Fetch one extra row to learn whether another page follows
+            pstmt.setInt(i, pageSize + 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (tasks.size() == pageSize) {
+                        hasNext = true;
+                        break;
+                    }
+                    Task task = new Task(rs.getString("title"), null, createdDate(rs),
+                            rs.getBoolean("is_completed"), UuidBytes.fromBytes(rs.getBytes("id_bin")));
+                    task.setVersion(rs.getInt("version"));
+                    tasks.add(task);
+                }
+            }
+        } catch (SQLException e) {
+            LIST_PAGE_LATENCY.failed();
+            throw new RuntimeException(e);
+        } finally {
+            LIST_PAGE_LATENCY.record(System.nanoTime() - start);
+        }
+        return new TaskPage(tasks, hasNext);
+    }
+
+    /**
+     * Loads a single task with its description, or returns null if no task has this id.
+     */
+    public Task findById(UUID id) {
+        long start = System.nanoTime();
+        try (Connection conn = getConnection()) {
+            return findById(conn, id);
+        } catch (SQLException e) {
+            FIND_BY_ID_LATENCY.failed();
+            throw new RuntimeException(e);
+        } finally {
+            FIND_BY_ID_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    private static Task findById(Connection conn, UUID id) throws SQLException {
+        String sql = "SELECT title, description, created_date, is_completed, version FROM tasks WHERE id_bin = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setBytes(1, UuidBytes.toBytes(id));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                Task task = new Task(rs.getString("title"), rs.getString("description"),
+                        createdDate(rs), rs.getBoolean("is_completed"), id);
+                task.setVersion(rs.getInt("version"));
+                return task;
+            }
+        }
+    }
+
+    /**
+     * @return how many versioned updates have found their row changed by another writer
+     */
+    public static long versionConflicts() {
+        return UPDATE_CONFLICTS.sum();
+    }
+
+    /**
+     * Cheap existence check: reads at most one row instead of the whole table.
+     */
+    public boolean hasTasks() {
+        String sql = "SELECT 1 FROM tasks FETCH FIRST 1 ROWS ONLY";
+        long start = System.nanoTime();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next();
+        } catch (SQLException e) {
+            HAS_TASKS_LATENCY.failed();
+            throw new RuntimeException(e);
+        } finally {
+            HAS_TASKS_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    public int countTasks() {
+        String sql = "SELECT COUNT(*) FROM tasks";
+        long start = System.nanoTime();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            COUNT_LATENCY.failed();
+            throw new RuntimeException(e);
+        } finally {
+            COUNT_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    //------------------------------ Versioned updates ------------------------------------
+    // Every row carries a version that each update increments. Updates name the version the
+    // caller read (WHERE id_bin = ? AND version = ?), so a row changed by another writer in the
+    // meantime is left alone and reported as a CONFLICT instead of being overwritten. On success
+    // the new value and version are set on the caller's task.
+
+    /**
+     * Sets the title if the row still has {@code task}'s version.
+     */
+    public UpdateResult editTitle(Task task, String newValue){
+        String sql = "UPDATE tasks SET title = ?, version = version + 1 WHERE id_bin = ? AND version = ?";
+        long start = System.nanoTime();
         try(Connection conn = getConnection();
         PreparedStatement pstmt = conn.prepareStatement(sql) ) {
             pstmt.setString(1, newValue);
-            pstmt.setString(2, task.getId().toString());
-            int rs = pstmt.executeUpdate();
-            if(rs > 0){
-                System.out.println("Updated title");
+            UpdateResult result = compareAndSet(conn, pstmt, 2, task);
+            if (result == UpdateResult.UPDATED) {
+                task.setTitle(newValue);
+                Log.debug("Updated title of %s", task.getId());
+                TaskEvents.updated(TaskEvent.Source.DERBY, task, TaskEvent.Field.TITLE);
             }
+            return result;
         } catch (SQLException e) {
+            EDIT_TITLE_LATENCY.failed();
             throw new RuntimeException(e);
+        } finally {
+            EDIT_TITLE_LATENCY.record(System.nanoTime() - start);
         }
     }
-    public void changeDescription(Task task, String newDescription)  {
-        String sql = "UPDATE tasks SET description = ? WHERE id = ? ";
 
+    /**
+     * Sets the description if the row still has {@code task}'s version.
+     */
+    public UpdateResult changeDescription(Task task, String newDescription)  {
+        String sql = "UPDATE tasks SET description = ?, version = version + 1 WHERE id_bin = ? AND version = ?";
+        long start = System.nanoTime();
         try(Connection conn = getConnection();
         PreparedStatement pstmt = conn.prepareStatement(sql)){
             pstmt.setString(1, newDescription);
-            pstmt.setString(2, task.getId().toString());
-            int rs = pstmt.executeUpdate();
-            if(rs>0){
-                System.out.println("Description updated!");
+            UpdateResult result = compareAndSet(conn, pstmt, 2, task);
+            if (result == UpdateResult.UPDATED) {
+                task.setDescription(newDescription);
+                Log.debug("Updated description of %s", task.getId());
+                TaskEvents.updated(TaskEvent.Source.DERBY, task, TaskEvent.Field.DESCRIPTION);
             }
+            return result;
         } catch (SQLException e) {
+            CHANGE_DESCRIPTION_LATENCY.failed();
             throw new RuntimeException(e);
+        } finally {
+            CHANGE_DESCRIPTION_LATENCY.record(System.nanoTime() - start);
         }
-        }
-        public void toggleTaskStatus(Task task){
-            String sql = "UPDATE tasks SET is_completed = ? WHERE id = ? ";
-            try(Connection conn = getConnection();
-                PreparedStatement pstmt = conn.prepareStatement(sql)){
-                  task.setStatus();
-                    pstmt.setBoolean(1, task.getStatus());
-                    pstmt.setString(2, task.getId().toString());
-                    int rs = pstmt.executeUpdate();
-                    if (rs> 0){
-                        System.out.println("Status has been changed!");
-                        }
-                }
-            catch (SQLException e) {
-                throw new RuntimeException(e);
+    }
+
+    /**
+     * Writes the opposite of the status {@code task} was read with, if the row still has its
+     * version. The task's status is flipped only when the write succeeds, so two callers toggling
+     * the same version cannot both win and cancel each other out.
+     */
+    public UpdateResult toggleTaskStatus(Task task){
+        String sql = "UPDATE tasks SET is_completed = ?, version = version + 1 WHERE id_bin = ? AND version = ?";
+        long start = System.nanoTime();
+        try(Connection conn = getConnection();
+            PreparedStatement pstmt = conn.prepareStatement(sql)){
+            pstmt.setBoolean(1, !task.getStatus());
+            UpdateResult result = compareAndSet(conn, pstmt, 2, task);
+            if (result == UpdateResult.UPDATED) {
+                task.setStatus();
+                Log.debug("Changed status of %s", task.getId());
+                TaskEvents.toggled(TaskEvent.Source.DERBY, task);
             }
+            return result;
+        } catch (SQLException e) {
+            TOGGLE_STATUS_LATENCY.failed();
+            throw new RuntimeException(e);
+        } finally {
+            TOGGLE_STATUS_LATENCY.record(System.nanoTime() - start);
         }
+    }
 
-    public void deleteTask(Task task) {
-        String sql = " DELETE FROM tasks WHERE id = ?";
+    /**
+     * Deletes the task if the row still has {@code task}'s version, so an edit made by another
+     * writer after the caller read the task is not thrown away unseen.
+     */
+    public UpdateResult deleteTask(Task task) {
+        String sql = "DELETE FROM tasks WHERE id_bin = ? AND version = ?";
+        long start = System.nanoTime();
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, task.getId().toString());
-            int rowsDeleted =pstmt.executeUpdate();
-            if (rowsDeleted > 0) {
-                System.out.println("✓ Task deleted successfully: " + task.getTitle());
-            } else {
-                System.out.println("⚠ No task found with ID: " + task.getId());
+            UpdateResult result = compareAndSet(conn, pstmt, 1, task);
+            switch (result) {
+                case UPDATED -> {
+                    Log.debug("✓ Task deleted successfully: %s", task.getId());
+                    TaskEvents.deleted(TaskEvent.Source.DERBY, task.getId());
+                }
+                case CONFLICT -> Log.warn("⚠ Task %s changed since it was read, not deleted", task.getId());
+                case NOT_FOUND -> Log.warn("⚠ No task found with ID: %s", task.getId());
             }
+            return result;
+        } catch (SQLException e) {
+            DELETE_LATENCY.failed();
+            throw new RuntimeException(e);
+        } finally {
+            DELETE_LATENCY.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Reads the task, applies {@code change} to it and writes title, description and status back
+     * with a versioned update, starting over from a fresh read on a conflict. Makes at most
+     * {@link DatabaseConfig#UPDATE_MAX_ATTEMPTS} attempts.
+     *
+     * @see #update(UUID, Consumer, int)
+     */
+    public UpdateResult update(UUID id, Consumer<Task> change) {
+        return update(id, change, DatabaseConfig.UPDATE_MAX_ATTEMPTS);
+    }
 
+    /**
+     * Read-modify-write with bounded retry. {@code change} may run once per attempt, each time on a
+     * newly read task, so it should only set fields and not have other side effects.
+     * {@code update(id, Task::setStatus)} is a toggle that never loses a concurrent toggle.
+     *
+     * @return UPDATED, NOT_FOUND if the task does not exist (or was deleted between attempts), or
+     *         CONFLICT if every attempt lost to another writer
+     */
+    public UpdateResult update(UUID id, Consumer<Task> change, int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        String sql = "UPDATE tasks SET title = ?, description = ?, is_completed = ?, version = version + 1 "
+                + "WHERE id_bin = ? AND version = ?";
+        long start = System.nanoTime();
+        try (Connection conn = getConnection()) {
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                Task task = findById(conn, id);
+                if (task == null) {
+                    return UpdateResult.NOT_FOUND;
+                }
+                change.accept(task);
+                UpdateResult result;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, task.getTitle());
+                    pstmt.setString(2, task.getDescription());
+                    pstmt.setBoolean(3, task.getStatus());
+                    result = compareAndSet(conn, pstmt, 4, task);
+                }
+                if (result != UpdateResult.CONFLICT) {
+                    if (result == UpdateResult.UPDATED) {
+                        TaskEvents.updated(TaskEvent.Source.DERBY, task, TaskEvent.Field.ALL);
+                    }
+                    return result;
+                }
+                Log.debug("Version conflict on %s, attempt %d of %d", id, attempt, maxAttempts);
+            }
+            return UpdateResult.CONFLICT;
         } catch (SQLException e) {
+            UPDATE_LATENCY.failed();
             throw new RuntimeException(e);
+        } finally {
+            UPDATE_LATENCY.record(System.nanoTime() - start);
         }
     }
-}
 
+    /**
+     * Binds id and expected version at {@code index} and {@code index + 1} and runs the statement.
+     * When no row matches, a second query tells a changed row from a missing one. On success the
+     * task's version is advanced to match the row.
+     */
+    private static UpdateResult compareAndSet(Connection conn, PreparedStatement pstmt, int index, Task task)
+            throws SQLException {
+        pstmt.setBytes(index, UuidBytes.toBytes(task.getId()));
+        pstmt.setInt(index + 1, task.getVersion());
+        if (pstmt.executeUpdate() > 0) {
+            task.setVersion(task.getVersion() + 1);
+            return UpdateResult.UPDATED;
+        }
+        try (PreparedStatement exists = conn.prepareStatement("SELECT 1 FROM tasks WHERE id_bin = ?")) {
+            exists.setBytes(1, UuidBytes.toBytes(task.getId()));
+            try (ResultSet rs = exists.executeQuery()) {
+                if (rs.next()) {
+                    UPDATE_CONFLICTS.increment();
+                    return UpdateResult.CONFLICT;
+                }
+                return UpdateResult.NOT_FOUND;
+            }
+        }
+    }
+
+    /**
+     * Writes the current title, description and status of every task in one batched transaction.
+     * Used to write back coalesced edits. Each row is updated only if it still has the task's
+     * version; the versions of written tasks are advanced.
+     *
+     * @param skipped called after the commit with every task that was not written, because its
+     *                row changed since it was read or no longer exists; may be null
+     * @return the number of rows updated
+     */
+    public int updateAll(Collection<Task> tasks, Consumer<Task> skipped) {
+        String sql = "UPDATE tasks SET title = ?, description = ?, is_completed = ?, version = version + 1 "
+                + "WHERE id_bin = ? AND version = ?";
+        return executeBatchInTransaction(sql, tasks, UPDATE_ALL_LATENCY, (pstmt, task) -> {
+            pstmt.setString(1, task.getTitle());
+            pstmt.setString(2, task.getDescription());
+            pstmt.setBoolean(3, task.getStatus());
+            pstmt.setBytes(4, UuidBytes.toBytes(task.getId()));
+            pstmt.setInt(5, task.getVersion());
+        }, task -> {
+            task.setVersion(task.getVersion() + 1);
+            TaskEvents.updated(TaskEvent.Source.DERBY, task, TaskEvent.Field.ALL);
+        }, skipped == null ? null : task -> {
+            UPDATE_CONFLICTS.increment();
+            skipped.accept(task);
+        });
+    }
+
+    /**
+     * Deletes every task with one of the given ids in one batched transaction.
+     *
+     * @return the number of rows deleted
+     */
+    public int deleteAllById(Collection<UUID> ids) {
+        String sql = "DELETE FROM tasks WHERE id_bin = ?";
+        return executeBatchInTransaction(sql, ids, DELETE_ALL_LATENCY, (pstmt, id) -> pstmt.setBytes(1, UuidBytes.toBytes(id)),
+                id -> TaskEvents.deleted(TaskEvent.Source.DERBY, id), null);
+    }
+
+    //------------------------------ Set-based operations ---------------------------------
+    /**
+     * Marks every task with one of the given ids as completed (or open) in one batched
+     * transaction. Rows that already have that status are not touched; changed rows get a new
+     * version, so concurrent versioned edits of them report a conflict.
+     *
+     * @return the number of rows whose status changed
+     */
+    public int setCompleted(Collection<UUID> ids, boolean completed) {
+        String sql = "UPDATE tasks SET is_completed = ?, version = version + 1 WHERE id_bin = ? AND is_completed <> ?";
+        return executeBatchInTransaction(sql, ids, SET_COMPLETED_LATENCY, (pstmt, id) -> {
+            pstmt.setBoolean(1, completed);
+            pstmt.setBytes(2, UuidBytes.toBytes(id));
+            pstmt.setBoolean(3, completed);
+        }, id -> TaskEvents.statusChanged(TaskEvent.Source.DERBY, id, completed), null);
+    }
+
+    /**
+     * Deletes all completed tasks.
+     *
+     * @return the number of rows deleted
+     */
+    public int deleteCompleted() {
+        return deleteWhere("is_completed = TRUE", pstmt -> { }, DELETE_COMPLETED_LATENCY);
+    }
+
+    /**
+     * Deletes all tasks created in {@code [from, to)}.
+     *
+     * @return the number of rows deleted
+     */
+    public int deleteCreatedBetween(Date from, Date to) {
+        return deleteWhere("created_date >= ? AND created_date < ?", pstmt -> {
+            pstmt.setTimestamp(1, new Timestamp(from.getTime()));
+            pstmt.setTimestamp(2, new Timestamp(to.getTime()));
+        }, DELETE_CREATED_LATENCY);
+    }
+
+    @FunctionalInterface
+    private interface Parameters {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
 
+    /**
+     * Runs {@code DELETE FROM tasks WHERE condition} as a single statement. When someone listens
+     * to {@link TaskEvents}, the matching ids are selected first in the same serializable
+     * transaction, so the Deleted events name exactly the rows that went: Derby locks the scanned
+     * index range and no matching row can be added in between.
+     */
+    private static int deleteWhere(String condition, Parameters parameters, LatencyHistogram latency) {
+        long start = System.nanoTime();
+        try (Connection conn = getConnection()) {
+            if (!TaskEvents.hasSubscribers()) {
+                try (PreparedStatement delete = conn.prepareStatement("DELETE FROM tasks WHERE " + condition)) {
+                    parameters.bind(delete);
+                    int deleted = delete.executeUpdate();
+                    Log.debug("✓ Deleted %d tasks where %s", deleted, condition);
+                    return deleted;
+                }
+            }
+            int isolation = conn.getTransactionIsolation();
+            List<UUID> ids = new ArrayList<>();
+            int deleted;
+            conn.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            conn.setAutoCommit(false);
+            try (PreparedStatement select = conn.prepareStatement("SELECT id_bin FROM tasks WHERE " + condition);
+                 PreparedStatement delete = conn.prepareStatement("DELETE FROM tasks WHERE " + condition)) {
+                parameters.bind(select);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(UuidBytes.fromBytes(rs.getBytes(1)));
+                    }
+                }
+                parameters.bind(delete);
+                deleted = delete.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                conn.setTransactionIsolation(isolation);
+            }
+            for (UUID id : ids) {
+                TaskEvents.deleted(TaskEvent.Source.DERBY, id);
+            }
+            Log.debug("✓ Deleted %d tasks where %s", deleted, condition);
+            return deleted;
+        } catch (SQLException e) {
+            latency.failed();
+            throw new RuntimeException(e);
+        } finally {
+            latency.record(System.nanoTime() - start);
+        }
+    }
 
+    @FunctionalInterface
+    private interface Binder<T> {
+        void bind(PreparedStatement pstmt, T item) throws SQLException;
+    }
+
+    /**
+     * Runs one statement per item as JDBC batches in a single transaction.
+     *
+     * @param onApplied called after the commit for every item whose statement changed a row
+     * @param onSkipped called after the commit for every item whose statement changed nothing; may be null
+     */
+    private static <T> int executeBatchInTransaction(String sql, Collection<T> items, LatencyHistogram latency,
+                                                     Binder<T> binder, Consumer<T> onApplied, Consumer<T> onSkipped) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            int affected = 0;
+            List<T> batch = new ArrayList<>();
+            List<T> applied = new ArrayList<>();
+            List<T> skipped = new ArrayList<>();
+            try {
+                for (T item : items) {
+                    binder.bind(pstmt, item);
+                    pstmt.addBatch();
+                    batch.add(item);
+                    if (batch.size() == DatabaseConfig.INSERT_BATCH_SIZE) {
+                        affected += executeBatch(pstmt, batch, applied, skipped);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    affected += executeBatch(pstmt, batch, applied, skipped);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            conn.setAutoCommit(true);
+            applied.forEach(onApplied);
+            if (onSkipped != null) {
+                skipped.forEach(onSkipped);
+            }
+            return affected;
+        } catch (SQLException e) {
+            latency.failed();
+            throw new RuntimeException(e);
+        } finally {
+            latency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Executes the pending batch and clears {@code batch}, sorting its items into those that
+     * changed a row ({@code applied}) and those that did not ({@code skipped}).
+     *
+     * @return the number of rows changed
+     */
+    private static <T> int executeBatch(PreparedStatement pstmt, List<T> batch, List<T> applied, List<T> skipped)
+            throws SQLException {
+        int[] counts = pstmt.executeBatch();
+        int total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            // SUCCESS_NO_INFO (-2) means the row was processed but the driver gives no count
+            int count = counts[i] == PreparedStatement.SUCCESS_NO_INFO ? 1 : Math.max(counts[i], 0);
+            total += count;
+            (count > 0 ? applied : skipped).add(batch.get(i));
+        }
+        batch.clear();
+        return total;
+    }
+}
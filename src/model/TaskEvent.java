@@ -0,0 +1,60 @@
+package model;
+
+import java.util.UUID;
+
+/**
+ * A change to a stored task, published through {@link TaskEvents} after the store has made it.
+ *
+ * Every event that carries a task carries a copy of its state after the change, so a subscriber
+ * can apply an event without reading the store, and applying the same event twice is harmless.
+ * That matters for {@link CachingTaskRepository}: it announces an edit when the edit is made and
+ * {@link TaskDAO} announces it again when the edit is written to Derby.
+ */
+public sealed interface TaskEvent {
+
+    /**
+     * Which store made the change.
+     */
+    enum Source { DERBY, JSON, XML, CACHE }
+
+    /**
+     * What an {@link Updated} event changed. {@code ALL} is a whole-row write back, which may also
+     * change the status.
+     */
+    enum Field { TITLE, DESCRIPTION, ALL }
+
+    Source source();
+
+    UUID id();
+
+    record Added(Source source, Task task) implements TaskEvent {
+        public UUID id() {
+            return task.getId();
+        }
+    }
+
+    record Updated(Source source, Task task, Field field) implements TaskEvent {
+        public UUID id() {
+            return task.getId();
+        }
+    }
+
+    /**
+     * The task's completion status was flipped; {@code task.getStatus()} is the new status.
+     */
+    record Toggled(Source source, Task task) implements TaskEvent {
+        public UUID id() {
+            return task.getId();
+        }
+    }
+
+    /**
+     * The task's completion status was set by a bulk operation that did not read the row, so only
+     * the id and the new status are known.
+     */
+    record StatusChanged(Source source, UUID id, boolean completed) implements TaskEvent {
+    }
+
+    record Deleted(Source source, UUID id) implements TaskEvent {
+    }
+}
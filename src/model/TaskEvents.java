@@ -0,0 +1,108 @@
+package model;
+
+import logging.Log;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide bus for {@link TaskEvent}s. Stores publish after every successful change; views
+ * and indexes subscribe and patch their own state instead of querying the store again.
+ *
+ * Events are delivered synchronously, on the thread that made the change, in subscription order.
+ * A subscriber that throws is logged and does not stop delivery to the others. With no subscribers
+ * a publish costs one empty-list check, so stores can publish unconditionally. Subscribers run
+ * inside the store's own lock when the store has one, so they should be quick and must not call
+ * back into the store.
+ */
+public final class TaskEvents {
+
+    private static final List<Consumer<TaskEvent>> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+
+    private TaskEvents() {
+    }
+
+    /**
+     * @return a handle that removes the subscriber again
+     */
+    public static Runnable subscribe(Consumer<TaskEvent> subscriber) {
+        SUBSCRIBERS.add(subscriber);
+        return () -> SUBSCRIBERS.remove(subscriber);
+    }
+
+    public static boolean hasSubscribers() {
+        return !SUBSCRIBERS.isEmpty();
+    }
+
+    public static void publish(TaskEvent event) {
+        for (Consumer<TaskEvent> subscriber : SUBSCRIBERS) {
+            try {
+                subscriber.accept(event);
+            } catch (RuntimeException e) {
+                Log.error("Task event subscriber failed on " + event, e);
+            }
+        }
+    }
+
+    //------------------------------ Helpers for stores -----------------------------------
+    static void added(TaskEvent.Source source, Task task) {
+        if (hasSubscribers()) {
+            publish(new TaskEvent.Added(source, snapshot(task)));
+        }
+    }
+
+    static void updated(TaskEvent.Source source, Task task, TaskEvent.Field field) {
+        if (hasSubscribers()) {
+            publish(new TaskEvent.Updated(source, snapshot(task), field));
+        }
+    }
+
+    static void toggled(TaskEvent.Source source, Task task) {
+        if (hasSubscribers()) {
+            publish(new TaskEvent.Toggled(source, snapshot(task)));
+        }
+    }
+
+    static void statusChanged(TaskEvent.Source source, UUID id, boolean completed) {
+        if (hasSubscribers()) {
+            publish(new TaskEvent.StatusChanged(source, id, completed));
+        }
+    }
+
+    static void deleted(TaskEvent.Source source, UUID id) {
+        if (hasSubscribers()) {
+            publish(new TaskEvent.Deleted(source, id));
+        }
+    }
+
+    /**
+     * Publishes the event for an {@code editTask(task, option, value)} call of the file stores,
+     * after the task object has been edited.
+     *
+     * @param editOption 1 title, 2 description, 3 status, 4 delete
+     */
+    static void edited(TaskEvent.Source source, Task task, int editOption) {
+        switch (editOption) {
+            case 1 -> updated(source, task, TaskEvent.Field.TITLE);
+            case 2 -> updated(source, task, TaskEvent.Field.DESCRIPTION);
+            case 3 -> toggled(source, task);
+            case 4 -> deleted(source, task.getId());
+            default -> {
+                // not a change
+            }
+        }
+    }
+
+    /**
+     * Copies a task so later edits of the store's own object do not show through the event.
+     */
+    static Task snapshot(Task task) {
+        Date date = task.getDate() == null ? null : new Date(task.getDate().getTime());
+        Task copy = new Task(task.getTitle(), task.getDescription(), date, task.getStatus(), task.getId());
+        copy.setVersion(task.getVersion());
+        return copy;
+    }
+}
@@ -0,0 +1,96 @@
+package model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import logging.Log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Converts the existing {@code tasks.json} and {@code tasks.xml} files to the binary format read by
+ * {@link BinaryTaskStore}. Both sources are streamed one task at a time, so files of any size
+ * convert in constant memory. The target is written to a temporary file and moved into place.
+ *
+ * <pre>
+ * java -cp ... model.TaskFileConverter tasks.json tasks.bin
+ * java -cp ... model.TaskFileConverter tasks.xml tasks.bin
+ * </pre>
+ */
+public final class TaskFileConverter {
+
+    private TaskFileConverter() {
+    }
+
+    /**
+     * @return the number of tasks converted
+     */
+    public static int jsonToBinary(Path json, Path binary) throws IOException {
+        return convert(json, binary, writer -> {
+            int count = 0;
+            try (JsonTaskReader reader = new JsonTaskReader(json.toFile(), new ObjectMapper())) {
+                Task task;
+                while ((task = reader.next()) != null) {
+                    writer.write(task);
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+    /**
+     * @return the number of tasks converted
+     */
+    public static int xmlToBinary(Path xml, Path binary) throws IOException {
+        return convert(xml, binary, writer -> {
+            int[] count = {0};
+            try {
+                XmlTaskStreamer.forEachTask(xml, task -> {
+                    try {
+                        writer.write(task);
+                        count[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return count[0];
+        });
+    }
+
+    @FunctionalInterface
+    private interface Source {
+        int copyTo(TaskCodec.Writer writer) throws IOException;
+    }
+
+    private static int convert(Path source, Path binary, Source copy) throws IOException {
+        long start = System.nanoTime();
+        Path tmp = Path.of(binary + ".tmp");
+        int count;
+        try (TaskCodec.Writer writer = new TaskCodec.Writer(Files.newOutputStream(tmp))) {
+            count = copy.copyTo(writer);
+        }
+        Files.move(tmp, binary, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Log.info("Converted %d tasks from %s (%d bytes) to %s (%d bytes) in %.2f s", count, source,
+                Files.size(source), binary, Files.size(binary), seconds);
+        return count;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: TaskFileConverter <tasks.json|tasks.xml> <tasks.bin>");
+            System.exit(2);
+        }
+        Path source = Path.of(args[0]);
+        Path binary = Path.of(args[1]);
+        int count = args[0].toLowerCase().endsWith(".xml") ? xmlToBinary(source, binary) : jsonToBinary(source, binary);
+        System.out.println("Converted " + count + " tasks to " + binary);
+        Log.flush();
+    }
+}
@@ -0,0 +1,152 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * In-memory task collection with a primary {@code UUID -> Task} hash index and secondary indexes
+ * on completion status and creation date.
+ *
+ * Lookups and deletes by id are O(1), status queries are O(result) and date-range queries are
+ * O(log n + result). Tasks keep insertion order. Because {@link Task} is mutable, a caller that
+ * toggles a task's status must call {@link #statusChanged(Task)} to keep the status index right.
+ *
+ * Not thread-safe; the owning store synchronizes access.
+ */
+public class TaskIndex {
+
+    private final Map<UUID, Task> byId = new LinkedHashMap<>();
+    private final Set<UUID> open = new LinkedHashSet<>();
+    private final Set<UUID> completed = new LinkedHashSet<>();
+    private final NavigableMap<Long, Set<UUID>> byCreated = new TreeMap<>(); // epoch millis -> ids
+
+    /**
+     * Adds a task, replacing any task with the same id.
+     */
+    public void add(Task task) {
+        remove(task.getId());
+        byId.put(task.getId(), task);
+        (task.getStatus() ? completed : open).add(task.getId());
+        byCreated.computeIfAbsent(createdKey(task), k -> new LinkedHashSet<>()).add(task.getId());
+    }
+
+    public void addAll(Collection<Task> tasks) {
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * @return the removed task, or null if no task had this id
+     */
+    public Task remove(UUID id) {
+        Task task = byId.remove(id);
+        if (task == null) {
+            return null;
+        }
+        open.remove(id);
+        completed.remove(id);
+        Long key = createdKey(task);
+        Set<UUID> sameDate = byCreated.get(key);
+        if (sameDate != null) {
+            sameDate.remove(id);
+            if (sameDate.isEmpty()) {
+                byCreated.remove(key);
+            }
+        }
+        return task;
+    }
+
+    /**
+     * Moves the task to the status bucket matching its current {@link Task#getStatus()}.
+     */
+    public void statusChanged(Task task) {
+        if (!byId.containsKey(task.getId())) {
+            return;
+        }
+        if (task.getStatus()) {
+            open.remove(task.getId());
+            completed.add(task.getId());
+        } else {
+            completed.remove(task.getId());
+            open.add(task.getId());
+        }
+    }
+
+    public Task get(UUID id) {
+        return byId.get(id);
+    }
+
+    public boolean contains(UUID id) {
+        return byId.containsKey(id);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public int openCount() {
+        return open.size();
+    }
+
+    public int completedCount() {
+        return completed.size();
+    }
+
+    /**
+     * @return a read-only live view of all tasks in insertion order
+     */
+    public Collection<Task> values() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    public List<Task> openTasks() {
+        return resolve(open);
+    }
+
+    public List<Task> completedTasks() {
+        return resolve(completed);
+    }
+
+    /**
+     * @return tasks created in {@code [from, to)}, oldest first
+     */
+    public List<Task> createdBetween(Date from, Date to) {
+        List<Task> result = new ArrayList<>();
+        for (Set<UUID> ids : byCreated.subMap(from.getTime(), true, to.getTime(), false).values()) {
+            for (UUID id : ids) {
+                result.add(byId.get(id));
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        byId.clear();
+        open.clear();
+        completed.clear();
+        byCreated.clear();
+    }
+
+    private List<Task> resolve(Set<UUID> ids) {
+        List<Task> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            result.add(byId.get(id));
+        }
+        return result;
+    }
+
+    private static Long createdKey(Task task) {
+        return task.getDate() == null ? Long.MIN_VALUE : task.getDate().getTime();
+    }
+}
@@ -0,0 +1,28 @@
+package model;
+
+import java.util.List;
+
+/**
+ * One page of tasks returned by a keyset-paginated query, ordered by creation date and id.
+ * The last task of a page is the cursor for fetching the next one.
+ */
+public class TaskPage {
+    private final List<Task> tasks;
+    private final boolean hasNext;
+
+    public TaskPage(List<Task> tasks, boolean hasNext) {
+        this.tasks = tasks;
+        this.hasNext = hasNext;
+    }
+
+    public List<Task> getTasks() {return tasks;}
+    public boolean hasNext() {return hasNext;}
+    public boolean isEmpty() {return tasks.isEmpty();}
+
+    /**
+     * @return the last task on this page, or null if the page is empty
+     */
+    public Task last() {
+        return tasks.isEmpty() ? null : tasks.get(tasks.size() - 1);
+    }
+}
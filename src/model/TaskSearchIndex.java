@@ -0,0 +1,287 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Incrementally maintained in-memory inverted index over task titles and descriptions.
+ *
+ * Every task gets an internal int document number. Each token maps to a postings list of
+ * (document, weight) pairs kept in primitive arrays, and the tokens live in a sorted map so a query
+ * term also matches every token it is a prefix of. Updating a task retires its old document and
+ * indexes it again under a new number; retired documents are skipped at query time and purged by a
+ * compaction once they make up half of the index.
+ *
+ * Queries match tasks containing every query term (as a word or word prefix) and rank them by
+ * tf-idf, with title matches weighted above description matches and exact words above prefixes.
+ */
+public class TaskSearchIndex {
+
+    public record SearchResult(UUID id, double score) { }
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_FACTOR = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<UUID, Integer> docByTask = new HashMap<>();
+    private UUID[] taskByDoc = new UUID[1024];
+    private final BitSet live = new BitSet();
+    private int nextDoc;
+    private int liveDocs;
+
+    //------------------------------ Updates ----------------------------------------------
+    /**
+     * Indexes a task, replacing what was indexed for it before.
+     */
+    public void index(Task task) {
+        Map<String, Integer> weights = termWeights(task);
+        lock.writeLock().lock();
+        try {
+            removeLocked(task.getId());
+            int doc = nextDoc++;
+            if (doc == taskByDoc.length) {
+                taskByDoc = Arrays.copyOf(taskByDoc, doc * 2);
+            }
+            taskByDoc[doc] = task.getId();
+            docByTask.put(task.getId(), doc);
+            live.set(doc);
+            liveDocs++;
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                terms.computeIfAbsent(entry.getKey(), k -> new Postings()).add(doc, entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexAll(Iterable<Task> tasks) {
+        for (Task task : tasks) {
+            index(task);
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Patches the index from a store change: added and edited tasks are indexed again, deleted
+     * ones removed. Status changes do not affect the index.
+     */
+    public void apply(TaskEvent event) {
+        switch (event) {
+            case TaskEvent.Added added -> index(added.task());
+            case TaskEvent.Updated updated -> index(updated.task());
+            case TaskEvent.Deleted deleted -> remove(deleted.id());
+            case TaskEvent.Toggled ignored -> {
+                // status is not indexed
+            }
+            case TaskEvent.StatusChanged ignored -> {
+                // status is not indexed
+            }
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            docByTask.clear();
+            live.clear();
+            taskByDoc = new UUID[1024];
+            nextDoc = 0;
+            liveDocs = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(UUID id) {
+        Integer doc = docByTask.remove(id);
+        if (doc == null) {
+            return;
+        }
+        live.clear(doc);
+        taskByDoc[doc] = null;
+        liveDocs--;
+        if (nextDoc - liveDocs > Math.max(1024, liveDocs)) {
+            compactLocked();
+        }
+    }
+
+    /**
+     * Renumbers live documents densely and drops retired ones from every postings list.
+     */
+    private void compactLocked() {
+        int[] remap = new int[nextDoc];
+        UUID[] compacted = new UUID[Math.max(1024, liveDocs * 2)];
+        int next = 0;
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            remap[doc] = next;
+            compacted[next] = taskByDoc[doc];
+            docByTask.put(taskByDoc[doc], next);
+            next++;
+        }
+        terms.values().removeIf(postings -> postings.compact(live, remap) == 0);
+        taskByDoc = compacted;
+        nextDoc = next;
+        live.clear();
+        live.set(0, next);
+    }
+
+    //------------------------------ Queries ----------------------------------------------
+    /**
+     * Returns at most {@code limit} tasks matching every term of {@code query}, best match first.
+     */
+    public List<SearchResult> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashMap<>(tokenCounts(query)).keySet());
+        if (queryTerms.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            float[] scores = new float[nextDoc];
+            int[] matched = new int[nextDoc]; // number of query terms each document matched so far
+            for (int t = 0; t < queryTerms.size(); t++) {
+                String term = queryTerms.get(t);
+                int expansions = 0;
+                for (Map.Entry<String, Postings> entry : terms.tailMap(term, true).entrySet()) {
+                    String token = entry.getKey();
+                    if (!token.startsWith(term) || expansions++ == MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    Postings postings = entry.getValue();
+                    double idf = Math.log(1.0 + (double) liveDocs / postings.size);
+                    double factor = token.length() == term.length() ? idf : idf * PREFIX_FACTOR;
+                    for (int i = 0; i < postings.size; i++) {
+                        int doc = postings.docs[i];
+                        // A document counts for term t only if it matched every earlier term
+                        if (matched[doc] == t) {
+                            matched[doc] = t + 1;
+                        } else if (matched[doc] != t + 1) {
+                            continue;
+                        }
+                        scores[doc] += (float) (postings.weights[i] * factor);
+                    }
+                }
+            }
+            return topResults(scores, matched, queryTerms.size(), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SearchResult> topResults(float[] scores, int[] matched, int termCount, int limit) {
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, (a, b) -> Float.compare(scores[a], scores[b]));
+        for (int doc = 0; doc < matched.length; doc++) {
+            if (matched[doc] != termCount || !live.get(doc)) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(doc);
+            } else if (scores[doc] > scores[best.peek()]) {
+                best.poll();
+                best.add(doc);
+            }
+        }
+        List<SearchResult> results = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            int doc = best.poll();
+            results.add(new SearchResult(taskByDoc[doc], scores[doc]));
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    //------------------------------ Tokenizing -------------------------------------------
+    private static Map<String, Integer> termWeights(Task task) {
+        Map<String, Integer> weights = new HashMap<>();
+        tokenCounts(task.getTitle()).forEach((token, count) -> weights.merge(token, count * TITLE_WEIGHT, Integer::sum));
+        tokenCounts(task.getDescription()).forEach((token, count) -> weights.merge(token, count * DESCRIPTION_WEIGHT, Integer::sum));
+        return weights;
+    }
+
+    /**
+     * Splits text into lower-case runs of letters and digits, counting occurrences.
+     */
+    static Map<String, Integer> tokenCounts(String text) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        if (text == null) {
+            return counts;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                counts.merge(text.substring(start, i).toLowerCase(Locale.ROOT), 1, Integer::sum);
+                start = -1;
+            }
+        }
+        return counts;
+    }
+
+    //------------------------------ Postings list ----------------------------------------
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] weights = new int[4];
+        int size;
+
+        void add(int doc, int weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+
+        /**
+         * Drops retired documents and renumbers the rest; returns the new size.
+         */
+        int compact(BitSet live, int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (live.get(docs[i])) {
+                    docs[kept] = remap[docs[i]];
+                    weights[kept] = weights[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+}
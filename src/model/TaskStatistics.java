@@ -0,0 +1,248 @@
+package model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Task counts and a per-day creation histogram for one backend, kept current from
+ * {@link TaskEvents} instead of being recounted from storage.
+ *
+ * The statistics are built once at startup by feeding every stored task to {@link #load(Task)}
+ * (see {@link #derby(TaskDAO)}, {@link #json(JsonDatabase)} and {@link #xml(XMLDatabase)}), and
+ * then {@link #apply(TaskEvent)} adjusts them for every add, edit, status change and delete of
+ * the backend's sources. Totals are plain counters, so {@link #summary()} costs the same for ten
+ * tasks or ten million; a histogram query costs one map lookup per day asked for.
+ *
+ * A {@link TaskEvent.Deleted} carries only the id, so the creation day and status of every task
+ * are kept in a {@link TaskTable} without titles or descriptions (about 45 bytes a task) to know
+ * which counters to decrease. Events carry absolute state, so applying one twice, as happens when
+ * {@link CachingTaskRepository} and {@link TaskDAO} both announce an edit, changes nothing the
+ * second time. Days are calendar days in the system time zone.
+ *
+ * Thread-safe: events arrive on whichever thread changed the store.
+ */
+public class TaskStatistics {
+
+    private final Set<TaskEvent.Source> sources;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final TaskTable tasks = new TaskTable();                  // guarded by this
+    private final TreeMap<Long, DayCounts> days = new TreeMap<>();   // epoch day -> counts, guarded by this
+    private int completed;                                            // guarded by this
+
+    /**
+     * Tasks created on one day, and how many of them are completed.
+     */
+    public record Day(LocalDate date, int created, int completed) { }
+
+    public record Summary(int total, int open, int completed, int createdToday, int createdLast7Days) {
+        @Override
+        public String toString() {
+            return total + " tasks: " + open + " open, " + completed + " completed; "
+                    + createdToday + " created today, " + createdLast7Days + " in the last 7 days";
+        }
+    }
+
+    private static final class DayCounts {
+        int created;
+        int completed;
+    }
+
+    /**
+     * Statistics for the events of the given sources, e.g. DERBY and CACHE for the Derby backend.
+     */
+    public TaskStatistics(TaskEvent.Source first, TaskEvent.Source... rest) {
+        this.sources = EnumSet.of(first, rest);
+    }
+
+    //------------------------------ Building ---------------------------------------------
+    /**
+     * Statistics for Derby and the write-behind cache in front of it, loaded with one scan that
+     * reads no titles or descriptions.
+     */
+    public static TaskStatistics derby(TaskDAO dao) {
+        TaskStatistics statistics = new TaskStatistics(TaskEvent.Source.DERBY, TaskEvent.Source.CACHE);
+        dao.forEachTaskSummary(statistics::load);
+        return statistics;
+    }
+
+    public static TaskStatistics json(JsonDatabase db) throws InterruptedException {
+        db.awaitLoaded();
+        TaskStatistics statistics = new TaskStatistics(TaskEvent.Source.JSON);
+        db.getTaskList().forEach(statistics::load);
+        return statistics;
+    }
+
+    public static TaskStatistics xml(XMLDatabase db) {
+        TaskStatistics statistics = new TaskStatistics(TaskEvent.Source.XML);
+        db.getTaskList().forEach(statistics::load);
+        return statistics;
+    }
+
+    /**
+     * Counts a stored task; a task already counted is replaced.
+     */
+    public synchronized void load(Task task) {
+        put(task);
+    }
+
+    /**
+     * Subscribes to {@link TaskEvents}.
+     *
+     * @return a Runnable that unsubscribes
+     */
+    public Runnable subscribe() {
+        return TaskEvents.subscribe(this::apply);
+    }
+
+    //------------------------------ Updating ---------------------------------------------
+    /**
+     * Applies an event if it comes from one of this backend's sources.
+     */
+    public synchronized void apply(TaskEvent event) {
+        if (!sources.contains(event.source())) {
+            return;
+        }
+        switch (event) {
+            case TaskEvent.Added added -> put(added.task());
+            case TaskEvent.Updated updated -> setCompleted(updated.id(), updated.task().getStatus());
+            case TaskEvent.Toggled toggled -> setCompleted(toggled.id(), toggled.task().getStatus());
+            case TaskEvent.StatusChanged changed -> setCompleted(changed.id(), changed.completed());
+            case TaskEvent.Deleted deleted -> remove(deleted.id());
+        }
+    }
+
+    private void put(Task task) {
+        remove(task.getId());
+        int row = tasks.add(new Task(null, null, task.getDate(), task.getStatus(), task.getId()));
+        DayCounts counts = dayOf(row, true);
+        if (counts != null) {
+            counts.created++;
+        }
+        if (task.getStatus()) {
+            completed++;
+            if (counts != null) {
+                counts.completed++;
+            }
+        }
+    }
+
+    private void setCompleted(UUID id, boolean value) {
+        int row = tasks.rowOf(id);
+        if (row < 0 || tasks.isCompleted(row) == value) {
+            return;
+        }
+        tasks.setCompleted(row, value);
+        int delta = value ? 1 : -1;
+        completed += delta;
+        DayCounts counts = dayOf(row, false);
+        if (counts != null) {
+            counts.completed += delta;
+        }
+    }
+
+    private void remove(UUID id) {
+        int row = tasks.rowOf(id);
+        if (row < 0) {
+            return;
+        }
+        boolean wasCompleted = tasks.isCompleted(row);
+        long day = epochDay(tasks.createdMillis(row));
+        DayCounts counts = days.get(day);
+        if (counts != null) {
+            counts.created--;
+            if (wasCompleted) {
+                counts.completed--;
+            }
+            if (counts.created == 0) {
+                days.remove(day);
+            }
+        }
+        if (wasCompleted) {
+            completed--;
+        }
+        tasks.remove(id);
+    }
+
+    /**
+     * @return the counts of the day the row's task was created, or null if it has no date
+     */
+    private DayCounts dayOf(int row, boolean create) {
+        long millis = tasks.createdMillis(row);
+        if (millis == Long.MIN_VALUE) {
+            return null;
+        }
+        long day = epochDay(millis);
+        return create ? days.computeIfAbsent(day, d -> new DayCounts()) : days.get(day);
+    }
+
+    private long epochDay(long millis) {
+        return millis == Long.MIN_VALUE ? Long.MIN_VALUE
+                : Instant.ofEpochMilli(millis).atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    //------------------------------ Queries ----------------------------------------------
+    public synchronized Summary summary() {
+        long today = LocalDate.now(zone).toEpochDay();
+        int createdLast7Days = 0;
+        for (long day = today - 6; day <= today; day++) {
+            createdLast7Days += created(day);
+        }
+        int total = tasks.size();
+        return new Summary(total, total - completed, completed, created(today), createdLast7Days);
+    }
+
+    public synchronized int total() {
+        return tasks.size();
+    }
+
+    public synchronized int open() {
+        return tasks.size() - completed;
+    }
+
+    public synchronized int completed() {
+        return completed;
+    }
+
+    public synchronized int createdOn(LocalDate date) {
+        return created(date.toEpochDay());
+    }
+
+    private int created(long epochDay) {
+        DayCounts counts = days.get(epochDay);
+        return counts == null ? 0 : counts.created;
+    }
+
+    /**
+     * @return one entry per day from {@code from} to {@code to} (both inclusive), oldest first,
+     *         including days on which no task was created
+     */
+    public synchronized List<Day> createdPerDay(LocalDate from, LocalDate to) {
+        List<Day> result = new ArrayList<>();
+        for (long day = from.toEpochDay(); day <= to.toEpochDay(); day++) {
+            DayCounts counts = days.get(day);
+            result.add(new Day(LocalDate.ofEpochDay(day), counts == null ? 0 : counts.created,
+                    counts == null ? 0 : counts.completed));
+        }
+        return result;
+    }
+
+    /**
+     * @return every day on which a remaining task was created, oldest first
+     */
+    public synchronized List<Day> histogram() {
+        List<Day> result = new ArrayList<>(days.size());
+        for (Map.Entry<Long, DayCounts> entry : days.entrySet()) {
+            result.add(new Day(LocalDate.ofEpochDay(entry.getKey()), entry.getValue().created,
+                    entry.getValue().completed));
+        }
+        return result;
+    }
+}
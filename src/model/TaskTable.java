@@ -0,0 +1,464 @@
+package model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * In-memory task collection stored by column instead of as {@link Task} objects.
+ *
+ * Row {@code r} is {@code msb[r]}, {@code lsb[r]} (the id), {@code created[r]} (epoch millis),
+ * bit {@code r} of {@code completed} and two references into a pool of distinct strings. Together
+ * with the id index a task costs about 45 bytes plus its share of the pool, against roughly 150
+ * bytes of object headers and pointers for a {@code Task} with its {@code UUID} and {@code Date}.
+ * Repeated titles and descriptions are stored once.
+ *
+ * Rows are kept dense: removing a row moves the last row into its place. Ids map to rows through
+ * an open-addressing table of ints that probes the id columns directly, so lookups create no
+ * objects. Scans such as {@link #countOpen()} or {@link #countCreatedBetween(long, long)} are loops
+ * over primitive arrays.
+ *
+ * {@link #row(int)} returns a {@link Row}, a {@code Task} that reads and writes the columns of one
+ * row and can be moved to another with {@link Row#moveTo(int)}. Its row number is not updated when
+ * rows move, so a {@code Row} should not be kept across a {@link #remove(UUID)}; use
+ * {@link #toTask(int)} for a standalone copy.
+ *
+ * Not thread-safe; the owning store synchronizes access.
+ */
+public class TaskTable {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long NULL_DATE = Long.MIN_VALUE;
+    private static final int NULL_STRING = -1;
+
+    private long[] msb;
+    private long[] lsb;
+    private long[] created;
+    private int[] title;
+    private int[] description;
+    private final BitSet completed = new BitSet();
+    private final StringPool strings = new StringPool();
+    private int size;
+
+    // id -> row + 1, 0 for an empty bucket; linear probing, kept at most half full
+    private int[] buckets;
+
+    public TaskTable() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public TaskTable(int capacity) {
+        capacity = Math.max(capacity, INITIAL_CAPACITY);
+        msb = new long[capacity];
+        lsb = new long[capacity];
+        created = new long[capacity];
+        title = new int[capacity];
+        description = new int[capacity];
+        buckets = new int[Integer.highestOneBit(capacity - 1) << 2];
+    }
+
+    public static TaskTable of(Iterable<Task> tasks) {
+        TaskTable table = new TaskTable();
+        for (Task task : tasks) {
+            table.add(task);
+        }
+        return table;
+    }
+
+    //------------------------------ Rows -------------------------------------------------
+    /**
+     * Adds a task, replacing any task with the same id.
+     *
+     * @return the task's row
+     */
+    public int add(Task task) {
+        long m = task.getId().getMostSignificantBits();
+        long l = task.getId().getLeastSignificantBits();
+        int row = rowOf(m, l);
+        if (row < 0) {
+            if (size == msb.length) {
+                grow();
+            }
+            row = size++;
+            msb[row] = m;
+            lsb[row] = l;
+            title[row] = NULL_STRING;
+            description[row] = NULL_STRING;
+            insertBucket(row);
+        }
+        created[row] = task.getDate() == null ? NULL_DATE : task.getDate().getTime();
+        completed.set(row, task.getStatus());
+        setTitle(row, task.getTitle());
+        setDescription(row, task.getDescription());
+        return row;
+    }
+
+    /**
+     * @return true if a task with this id was removed
+     */
+    public boolean remove(UUID id) {
+        int row = rowOf(id);
+        if (row < 0) {
+            return false;
+        }
+        removeBucket(row);
+        strings.release(title[row]);
+        strings.release(description[row]);
+        int last = --size;
+        if (row != last) {
+            removeBucket(last);
+            msb[row] = msb[last];
+            lsb[row] = lsb[last];
+            created[row] = created[last];
+            title[row] = title[last];
+            description[row] = description[last];
+            completed.set(row, completed.get(last));
+            insertBucket(row);
+        }
+        completed.clear(last);
+        return true;
+    }
+
+    public void clear() {
+        for (int row = 0; row < size; row++) {
+            strings.release(title[row]);
+            strings.release(description[row]);
+        }
+        Arrays.fill(buckets, 0);
+        completed.clear();
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        int capacity = msb.length * 2;
+        msb = Arrays.copyOf(msb, capacity);
+        lsb = Arrays.copyOf(lsb, capacity);
+        created = Arrays.copyOf(created, capacity);
+        title = Arrays.copyOf(title, capacity);
+        description = Arrays.copyOf(description, capacity);
+        buckets = new int[buckets.length * 2];
+        for (int row = 0; row < size; row++) {
+            insertBucket(row);
+        }
+    }
+
+    //------------------------------ Id index ---------------------------------------------
+    /**
+     * @return the row of the task with this id, or -1
+     */
+    public int rowOf(UUID id) {
+        return rowOf(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    public int rowOf(long idMsb, long idLsb) {
+        int mask = buckets.length - 1;
+        for (int bucket = hash(idMsb, idLsb) & mask; ; bucket = (bucket + 1) & mask) {
+            int entry = buckets[bucket];
+            if (entry == 0) {
+                return -1;
+            }
+            if (msb[entry - 1] == idMsb && lsb[entry - 1] == idLsb) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private static int hash(long idMsb, long idLsb) {
+        long h = idMsb ^ idLsb;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private void insertBucket(int row) {
+        int mask = buckets.length - 1;
+        int bucket = hash(msb[row], lsb[row]) & mask;
+        while (buckets[bucket] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        buckets[bucket] = row + 1;
+    }
+
+    /**
+     * Empties the bucket pointing at this row and shifts later entries of the probe run back, so
+     * lookups never need deleted markers.
+     */
+    private void removeBucket(int row) {
+        int mask = buckets.length - 1;
+        int hole = hash(msb[row], lsb[row]) & mask;
+        while (buckets[hole] != row + 1) {
+            hole = (hole + 1) & mask;
+        }
+        for (int bucket = (hole + 1) & mask; buckets[bucket] != 0; bucket = (bucket + 1) & mask) {
+            int entry = buckets[bucket] - 1;
+            int home = hash(msb[entry], lsb[entry]) & mask;
+            // Move the entry into the hole unless its home lies cyclically in (hole, bucket]
+            boolean between = hole <= bucket ? hole < home && home <= bucket : hole < home || home <= bucket;
+            if (!between) {
+                buckets[hole] = buckets[bucket];
+                hole = bucket;
+            }
+        }
+        buckets[hole] = 0;
+    }
+
+    //------------------------------ Columns ----------------------------------------------
+    public UUID id(int row) {
+        return new UUID(msb[row], lsb[row]);
+    }
+
+    /**
+     * @return the creation time in epoch millis, or {@link Long#MIN_VALUE} if the task has none
+     */
+    public long createdMillis(int row) {
+        return created[row];
+    }
+
+    public boolean isCompleted(int row) {
+        return completed.get(row);
+    }
+
+    public String title(int row) {
+        return strings.get(title[row]);
+    }
+
+    public String description(int row) {
+        return strings.get(description[row]);
+    }
+
+    public void setTitle(int row, String value) {
+        int old = title[row];
+        title[row] = strings.intern(value);
+        strings.release(old);
+    }
+
+    public void setDescription(int row, String value) {
+        int old = description[row];
+        description[row] = strings.intern(value);
+        strings.release(old);
+    }
+
+    public void setCompleted(int row, boolean value) {
+        completed.set(row, value);
+    }
+
+    public void toggle(int row) {
+        completed.flip(row);
+    }
+
+    /**
+     * @return a standalone {@link Task} with the row's current values
+     */
+    public Task toTask(int row) {
+        long millis = created[row];
+        return new Task(title(row), description(row), millis == NULL_DATE ? null : new Date(millis),
+                completed.get(row), id(row));
+    }
+
+    /**
+     * @return a flyweight view of the row
+     */
+    public Row row(int row) {
+        return new Row(row);
+    }
+
+    //------------------------------ Scans ------------------------------------------------
+    public int countCompleted() {
+        return completed.cardinality();
+    }
+
+    public int countOpen() {
+        return size - completed.cardinality();
+    }
+
+    /**
+     * @return how many tasks were created in {@code [fromMillis, toMillis)}
+     */
+    public int countCreatedBetween(long fromMillis, long toMillis) {
+        long[] created = this.created;
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            long millis = created[row];
+            if (millis >= fromMillis && millis < toMillis) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the rows of tasks created in {@code [fromMillis, toMillis)}, in row order
+     */
+    public int[] rowsCreatedBetween(long fromMillis, long toMillis) {
+        long[] created = this.created;
+        int[] rows = new int[countCreatedBetween(fromMillis, toMillis)];
+        int found = 0;
+        for (int row = 0; row < size && found < rows.length; row++) {
+            long millis = created[row];
+            if (millis >= fromMillis && millis < toMillis) {
+                rows[found++] = row;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Calls the action with the row of every open task.
+     */
+    public void forEachOpen(IntConsumer action) {
+        for (int row = completed.nextClearBit(0); row < size; row = completed.nextClearBit(row + 1)) {
+            action.accept(row);
+        }
+    }
+
+    /**
+     * Calls the action with the row of every completed task.
+     */
+    public void forEachCompleted(IntConsumer action) {
+        for (int row = completed.nextSetBit(0); row >= 0 && row < size; row = completed.nextSetBit(row + 1)) {
+            action.accept(row);
+        }
+    }
+
+    /**
+     * @return how many distinct strings the table holds
+     */
+    public int distinctStrings() {
+        return strings.size();
+    }
+
+    //------------------------------ Flyweight --------------------------------------------
+    /**
+     * A {@link Task} backed by one row of the table. Getters read the columns and setters write
+     * them; {@link #getId()} and {@link #getDate()} create a new object on every call.
+     */
+    public final class Row extends Task {
+        private int row;
+
+        private Row(int row) {
+            super(null, null, null, false, null);
+            this.row = row;
+        }
+
+        /**
+         * Points this view at another row.
+         */
+        public Row moveTo(int row) {
+            this.row = row;
+            return this;
+        }
+
+        public int row() {
+            return row;
+        }
+
+        @Override
+        public String getTitle() {
+            return title(row);
+        }
+
+        @Override
+        public String getDescription() {
+            return description(row);
+        }
+
+        @Override
+        public Date getDate() {
+            long millis = created[row];
+            return millis == NULL_DATE ? null : new Date(millis);
+        }
+
+        @Override
+        public boolean getStatus() {
+            return completed.get(row);
+        }
+
+        @Override
+        public UUID getId() {
+            return id(row);
+        }
+
+        @Override
+        public void setStatus() {
+            toggle(row);
+        }
+
+        @Override
+        public void setTitle(String title) {
+            TaskTable.this.setTitle(row, title);
+        }
+
+        @Override
+        public void setDescription(String description) {
+            TaskTable.this.setDescription(row, description);
+        }
+
+        @Override
+        public String toString() {
+            return toTask(row).toString();
+        }
+    }
+
+    //------------------------------ String pool ------------------------------------------
+    /**
+     * Distinct strings with reference counts; a string is dropped when its count reaches zero and
+     * its number is reused.
+     */
+    private static final class StringPool {
+        private final Map<String, Integer> numbers = new HashMap<>();
+        private String[] values = new String[INITIAL_CAPACITY];
+        private int[] counts = new int[INITIAL_CAPACITY];
+        private int[] free = new int[INITIAL_CAPACITY];
+        private int freeCount;
+        private int next;
+
+        int intern(String value) {
+            if (value == null) {
+                return NULL_STRING;
+            }
+            Integer number = numbers.get(value);
+            if (number != null) {
+                counts[number]++;
+                return number;
+            }
+            int n = freeCount > 0 ? free[--freeCount] : next++;
+            if (n == values.length) {
+                values = Arrays.copyOf(values, n * 2);
+                counts = Arrays.copyOf(counts, n * 2);
+            }
+            values[n] = value;
+            counts[n] = 1;
+            numbers.put(value, n);
+            return n;
+        }
+
+        String get(int number) {
+            return number == NULL_STRING ? null : values[number];
+        }
+
+        void release(int number) {
+            if (number == NULL_STRING || --counts[number] > 0) {
+                return;
+            }
+            numbers.remove(values[number]);
+            values[number] = null;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = number;
+        }
+
+        int size() {
+            return numbers.size();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package model;
+
+/**
+ * Outcome of a versioned update in {@link TaskDAO}.
+ */
+public enum UpdateResult {
+    /** The row had the expected version and was changed. */
+    UPDATED,
+    /** The row exists but another writer changed it since it was read; nothing was written. */
+    CONFLICT,
+    /** No row has this id. */
+    NOT_FOUND
+}
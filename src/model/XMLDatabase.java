@@ -1,31 +1,38 @@
 package model;
 
 import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.io.File;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 
+import logging.Log;
+import metrics.LatencyHistogram;
+import metrics.Metrics;
 import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
 public class XMLDatabase {
 
-    private static final String FILE_PATH = "./tasks.xml";
+    private static final String FILE_PATH = System.getProperty("taskapp.xml.file", "./tasks.xml");
+    private static final Path FILE = Path.of(FILE_PATH);
     private static volatile XMLDatabase instance;
+
+    // Per-operation latency, see metrics.Metrics
+    private static final LatencyHistogram LOAD_LATENCY = Metrics.histogram("XMLDatabase", "getData");
+    private static final LatencyHistogram ADD_LATENCY = Metrics.histogram("XMLDatabase", "addTask");
+    private static final LatencyHistogram EDIT_LATENCY = Metrics.histogram("XMLDatabase", "editTask");
+    private static final LatencyHistogram BULK_LATENCY = Metrics.histogram("XMLDatabase", "bulkEdit");
     private ArrayList<Task> taskList;
 
 
@@ -73,192 +80,210 @@ public class XMLDatabase {
     }
 
     //---------------------- Unified Edit Method -------------------------------------------------------------------------------
-    
+
+    /**
+     * Applies one edit to a task and persists it with a single streaming pass over the XML file:
+     * every other element is copied through unchanged and only the matching {@code <task>} is rewritten.
+     *
+     * @param selectedOption 1 edit title, 2 edit description, 3 toggle status, 4 delete
+     */
     public void editTask(Task task, int selectedOption, String newValue) {
-        Document doc = openDocument();
-        Element root = doc.getDocumentElement();
-        NodeList taskNodes = root.getElementsByTagName("task");
-        for (int i = 0; i < taskNodes.getLength(); i++) {
-            Node taskNode = taskNodes.item(i);
-            if (taskNode.getNodeType() == Node.ELEMENT_NODE) {
-                Element taskElement = (Element) taskNode;
-                String idStr = taskElement.getAttribute("id");
-                if (idStr.equals(task.getId().toString())) {
-                    switch (selectedOption) {
-                        case 1: // Edit title
-                            Element titleElement = (Element) taskElement.getElementsByTagName("title").item(0);
-                            titleElement.setTextContent(newValue);
-                            task.setTitle(newValue);
-                            System.out.println("Title changed for task ID: " + idStr);
-                            break;
-                        case 2: // Edit description
-                            Element descElement = (Element) taskElement.getElementsByTagName("description").item(0);
-                            descElement.setTextContent(newValue);
-                            task.setDescription(newValue);
-                            System.out.println("Description changed for task ID: " + idStr);
-                            break;
-                        case 3: // Edit status (toggle)
-                            task.setStatus();
-                            taskElement.setAttribute("completed", String.valueOf(task.getStatus()));
-                            System.out.println("Status changed for task ID: " + idStr);
-                            break;
-                        case 4: // Delete task
-                            Element parent = (Element) taskElement.getParentNode();
-                            parent.removeChild(taskElement);
-                            // Also remove from the in-memory list
-                            taskList.removeIf(t -> t.getId().equals(task.getId()));
-                            System.out.println("Task deleted with ID: " + idStr);
-                            break;
+        String idStr = task.getId().toString();
+        UnaryOperator<Task> edit;
+        switch (selectedOption) {
+            case 1: // Edit title
+                edit = stored -> {
+                    stored.setTitle(newValue);
+                    return stored;
+                };
+                break;
+            case 2: // Edit description
+                edit = stored -> {
+                    stored.setDescription(newValue);
+                    return stored;
+                };
+                break;
+            case 3: // Edit status (toggle)
+                boolean completed = !task.getStatus();
+                edit = stored -> new Task(stored.getTitle(), stored.getDescription(), stored.getDate(),
+                        completed, stored.getId());
+                break;
+            case 4: // Delete task
+                edit = stored -> null;
+                break;
+            default:
+                Log.warn("Invalid edit option: %d", selectedOption);
+                return;
+        }
 
-                        default:
-                            System.out.println("Invalid option!");
-                            return;
-                    }
-                    break; // Exit loop once we find and update the task
-                }
+        long start = System.nanoTime();
+        try {
+            if (!XmlTaskStreamer.rewriteTask(FILE, task.getId(), edit)) {
+                Log.warn("No task found in XML with ID: " + idStr);
+                return;
+            }
+        } catch (IOException e) {
+            EDIT_LATENCY.failed();
+            throw new RuntimeException(e);
+        } finally {
+            EDIT_LATENCY.record(System.nanoTime() - start);
+        }
+        // The file has the change; only now bring the in-memory task in line with it
+        switch (selectedOption) {
+            case 1 -> task.setTitle(newValue);
+            case 2 -> task.setDescription(newValue);
+            case 3 -> task.setStatus();
+            default -> taskList.removeIf(t -> t.getId().equals(task.getId()));
+        }
+        TaskEvents.edited(TaskEvent.Source.XML, task, selectedOption);
+        switch (selectedOption) {
+            case 1 -> Log.debug("Title changed for task ID: " + idStr);
+            case 2 -> Log.debug("Description changed for task ID: " + idStr);
+            case 3 -> Log.debug("Status changed for task ID: " + idStr);
+            default -> Log.debug("Task deleted with ID: " + idStr);
+        }
+    }
+
+
+    //---------------------- Set-based edits ------------------------------------------------------
+    // Each of these rewrites the file once for the whole set, where editTask would rewrite it once per task.
+
+    /**
+     * Marks the tasks with these ids as completed (or open).
+     *
+     * @return the number of tasks whose status changed
+     */
+    public int setCompleted(Collection<UUID> ids, boolean completed) {
+        Set<UUID> selected = new HashSet<>(ids);
+        if (selected.isEmpty()) {
+            return 0;
+        }
+        List<Task> changed = new ArrayList<>();
+        rewrite(selected::contains, stored -> {
+            if (stored.getStatus() == completed) {
+                return stored;
+            }
+            Task updated = new Task(stored.getTitle(), stored.getDescription(), stored.getDate(), completed,
+                    stored.getId());
+            changed.add(updated);
+            return updated;
+        });
+        for (Task task : taskList) {
+            if (selected.contains(task.getId()) && task.getStatus() != completed) {
+                task.setStatus();
+            }
+        }
+        for (Task task : changed) {
+            TaskEvents.toggled(TaskEvent.Source.XML, task);
+        }
+        Log.debug("Status set for %d tasks", changed.size());
+        return changed.size();
+    }
+
+    /**
+     * @return the number of completed tasks deleted
+     */
+    public int deleteCompleted() {
+        return deleteWhere(Task::getStatus);
+    }
+
+    /**
+     * Deletes the tasks created from {@code from} (inclusive) to {@code to} (exclusive).
+     *
+     * @return the number of tasks deleted
+     */
+    public int deleteCreatedBetween(Date from, Date to) {
+        return deleteWhere(task -> task.getDate() != null
+                && !task.getDate().before(from) && task.getDate().before(to));
+    }
+
+    private int deleteWhere(Predicate<Task> condition) {
+        Set<UUID> deleted = new HashSet<>();
+        rewrite(id -> true, stored -> {
+            if (!condition.test(stored)) {
+                return stored;
             }
+            deleted.add(stored.getId());
+            return null;
+        });
+        taskList.removeIf(t -> deleted.contains(t.getId()));
+        for (UUID id : deleted) {
+            TaskEvents.deleted(TaskEvent.Source.XML, id);
         }
-        saveXml(doc);
+        Log.debug("Deleted %d tasks", deleted.size());
+        return deleted.size();
     }
 
+    private void rewrite(Predicate<UUID> candidates, UnaryOperator<Task> edit) {
+        long start = System.nanoTime();
+        try {
+            XmlTaskStreamer.rewriteTasks(FILE, candidates, edit);
+        } catch (IOException e) {
+            BULK_LATENCY.failed();
+            throw new RuntimeException(e);
+        } finally {
+            BULK_LATENCY.record(System.nanoTime() - start);
+        }
+    }
 
     //----------------------------Add Task to XML----------------------------------
 
     /**
      * Adds a Task to the in-memory list and persists it as a new `<task>` element in the XML file at {@code FILE_PATH}.
      *
-     * The persisted XML task will have attributes `completed="false"` and `id` set from {@code task.getId()},
+     * The persisted XML task will have attributes `completed` and `id` set from the task,
      * and child elements `title`, `description`, and `CreatedAt`. The `CreatedAt` timestamp is formatted using
-     * pattern "MM-dd-yyyy hh:mm:ss a".
+     * pattern "MM-dd-yyyy hh:mm:ss a". The element is written just before the closing {@code </tasks>}
+     * tag without rewriting the rest of the file, so adding costs the same however many tasks exist.
      *
      * @param task the Task to add; its id, title, description, and date are used when creating the XML entry
      */
     public void addTask(Task task) {
         taskList.add(task);
-
-        Document doc = openDocument();
-
-            // Create new task element
-            Element newTask = doc.createElement("task");
-            newTask.setAttribute("completed", String.valueOf(false));
-            newTask.setAttribute("id", String.valueOf(task.getId()));
-
-            // Create title element
-            Element taskTitle = doc.createElement("title");
-            taskTitle.appendChild(doc.createTextNode(task.getTitle()));
-            newTask.appendChild(taskTitle);
-
-            // Create description element
-            Element taskDescription = doc.createElement("description");
-            taskDescription.appendChild(doc.createTextNode(String.valueOf(task.getDescription())));
-            newTask.appendChild(taskDescription);
-            //Create time stamp
-            Element taskTime = doc.createElement("CreatedAt");
-            SimpleDateFormat formatter = new SimpleDateFormat("MM-dd-yyyy hh:mm:ss a");
-            taskTime.appendChild(doc.createTextNode(formatter.format(task.getDate())));
-
-            newTask.appendChild(taskTime);
-
-
-
-            // Append new task to the root
-            doc.getDocumentElement().appendChild(newTask);
-            saveXml(doc);
-            System.out.println("Student created: " + task.getTitle());
-
+        long start = System.nanoTime();
+        try {
+            // Fast path: overwrite the closing </tasks> tag in place; rewrite the file only if its tail is unexpected
+            if (!XmlTaskStreamer.appendTaskInPlace(FILE, task)) {
+                XmlTaskStreamer.appendTask(FILE, task);
+            }
+        } catch (IOException e) {
+            ADD_LATENCY.failed();
+            throw new RuntimeException(e);
+        } finally {
+            ADD_LATENCY.record(System.nanoTime() - start);
         }
+        Log.debug("Task added: %s", task.getId());
+        TaskEvents.added(TaskEvent.Source.XML, task);
+    }
 
 
 //-----------------------------Get Data from XML to ArrayList-------------------------------
     /**
      * Loads tasks from the XML file (FILE_PATH) and populates the in-memory taskList.
      *
-     * Parses each <task> element under the document root and constructs a corresponding
-     * Task object using the element's title, description, CreatedAt (parsed with pattern
-     * "MM-dd-yyyy hh:mm:ss a"), completed attribute (as boolean), and id attribute (as UUID).
-     * If the CreatedAt value cannot be parsed, the current date is used as a fallback.
+     * The file is read with a StAX stream reader, one {@code <task>} element at a time, so parsing
+     * needs constant memory regardless of file size. Each task is built from the element's title,
+     * description, CreatedAt (parsed with pattern "MM-dd-yyyy hh:mm:ss a"), completed attribute
+     * (as boolean), and id attribute (as UUID). If the CreatedAt value cannot be parsed, the current
+     * date is used as a fallback.
      *
      * Side effects:
-     * - Clears or appends to the in-memory taskList (as implemented) by adding each loaded Task.
+     * - Appends each loaded Task to the in-memory taskList.
      * - Reads from and depends on the FILE_PATH XML file structure (expects <task> children
      *   with <title>, <description>, <CreatedAt> and attributes "id" and "completed").
      */
     public void getData() {
-        Document doc = openDocument();
-
-            // get the root element
-            Element root = doc.getDocumentElement();
-        
-            // get all task elements
-            NodeList taskNodes = root.getElementsByTagName("task");
-        
-            // iterate through each task
-            for (int i = 0; i < taskNodes.getLength(); i++) {
-                Node taskNode = taskNodes.item(i);
-            
-                if (taskNode.getNodeType() == Node.ELEMENT_NODE) {
-                    Element taskElement = (Element) taskNode;
-                
-                    // get title and description
-                    String title = taskElement.getElementsByTagName("title").item(0).getTextContent();
-                    String description = taskElement.getElementsByTagName("description").item(0).getTextContent();
-                    String dateStr = taskElement.getElementsByTagName("CreatedAt").item(0).getTextContent();
-                    String idStr  = taskElement.getAttribute("id");
-                    boolean status = Boolean.parseBoolean(taskElement.getAttribute("completed"));
-                    Date date = null;
-                    try {
-                        SimpleDateFormat formatter = new SimpleDateFormat("MM-dd-yyyy hh:mm:ss a");
-                        date = formatter.parse(dateStr);
-                    } catch (ParseException e) {
-                        e.printStackTrace();
-                        date = new Date(); // fallback to current date
-                    }
-
-
-                    UUID taskId = idStr.isEmpty() ? null : UUID.fromString(idStr);
-                    Task task = new Task(title, description, date, status, taskId);
-                    taskList.add(task);
-                }
-            }
-
-    }
-
-//---------------------(Tool method) Save Data to XML----------------------------------
-    private static void saveXml(Document doc) {
-        try {
-            // Remove empty text nodes and normalize whitespace before saving
-            removeEmptyTextNodes(doc.getDocumentElement());
-        
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
-            
-            // Set proper indentation properties
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4");
-            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-            transformer.setOutputProperty(OutputKeys.STANDALONE, "no");
-        
-            DOMSource source = new DOMSource(doc);
-            StreamResult result = new StreamResult(new File(FILE_PATH));
-            transformer.transform(source, result);
-        } catch (Exception e) {
-            e.printStackTrace();
+        if (!Files.exists(FILE)) {
+            return; // no tasks saved yet
         }
-    }
-
-    //------------ Helper method to remove empty text nodes----------------------------------
-    private static void removeEmptyTextNodes(Node node) {
-        NodeList children = node.getChildNodes();
-        for (int i = children.getLength() - 1; i >= 0; i--) {
-            Node child = children.item(i);
-            if (child.getNodeType() == Node.TEXT_NODE) {
-                String textContent = child.getTextContent().trim();
-                if (textContent.isEmpty()) {
-                    node.removeChild(child);
-                }
-            } else if (child.getNodeType() == Node.ELEMENT_NODE) {
-                removeEmptyTextNodes(child);
-            }
+        long start = System.nanoTime();
+        try {
+            XmlTaskStreamer.forEachTask(FILE, taskList::add);
+        } catch (IOException e) {
+            LOAD_LATENCY.failed();
+            throw new RuntimeException(e);
+        } finally {
+            LOAD_LATENCY.record(System.nanoTime() - start);
         }
     }
 
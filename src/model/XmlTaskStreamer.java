@@ -0,0 +1,466 @@
+package model;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * StAX (XMLStreamReader/XMLStreamWriter) engine for the {@code tasks.xml} format used by {@link XMLDatabase}.
+ *
+ * Nothing here builds a DOM: reads walk the file one event at a time and hold only the task being
+ * parsed, and writes are single streaming passes from the old file to a temp file that is then moved
+ * over it. During a rewrite every event is copied through unchanged except the one {@code <task>}
+ * element being replaced, inserted or dropped.
+ *
+ * File layout:
+ * <pre>
+ * &lt;tasks&gt;
+ *     &lt;task completed="false" id="..."&gt;
+ *         &lt;title&gt;...&lt;/title&gt;
+ *         &lt;description&gt;...&lt;/description&gt;
+ *         &lt;CreatedAt&gt;MM-dd-yyyy hh:mm:ss a&lt;/CreatedAt&gt;
+ *     &lt;/task&gt;
+ * &lt;/tasks&gt;
+ * </pre>
+ */
+public final class XmlTaskStreamer {
+
+    static final String DATE_PATTERN = "MM-dd-yyyy hh:mm:ss a";
+    static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>";
+    private static final String TASK_INDENT = "\n    ";
+    private static final String FIELD_INDENT = "\n        ";
+    private static final byte[] ROOT_END_TAG = "</tasks>".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CLOSING = "\n</tasks>\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int TAIL_SCAN_BYTES = 4096;
+
+    private static final XMLInputFactory INPUT_FACTORY = newInputFactory();
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    private XmlTaskStreamer() {
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    //-------------------------------- Reading ----------------------------------------------------
+    /**
+     * Streams every {@code <task>} in the file to {@code consumer}, one at a time.
+     *
+     * @throws java.nio.file.NoSuchFileException if the file does not exist
+     */
+    public static void forEachTask(Path file, Consumer<Task> consumer) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && "task".equals(reader.getLocalName())) {
+                        consumer.accept(readTask(reader));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Cannot read " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads the task whose start tag the reader is positioned on, leaving it on the matching end tag.
+     */
+    static Task readTask(XMLStreamReader reader) throws XMLStreamException {
+        String idStr = reader.getAttributeValue(null, "id");
+        boolean status = Boolean.parseBoolean(reader.getAttributeValue(null, "completed"));
+        String title = null;
+        String description = null;
+        String dateStr = null;
+
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "title" -> title = reader.getElementText();
+                    case "description" -> description = reader.getElementText();
+                    case "CreatedAt" -> dateStr = reader.getElementText();
+                    default -> depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+
+        Date date;
+        try {
+            date = dateStr == null ? new Date() : new SimpleDateFormat(DATE_PATTERN).parse(dateStr);
+        } catch (ParseException e) {
+            date = new Date(); // fallback to current date
+        }
+        UUID taskId = idStr == null || idStr.isEmpty() ? null : UUID.fromString(idStr);
+        return new Task(title, description, date, status, taskId);
+    }
+
+    //-------------------------------- Writing ----------------------------------------------------
+    /**
+     * Rewrites the file in one streaming pass, replacing the task with {@code id} by the result of
+     * {@code edit}. A null result deletes the task.
+     *
+     * @return true if a task with this id was found
+     */
+    public static boolean rewriteTask(Path file, UUID id, UnaryOperator<Task> edit) throws IOException {
+        String idStr = id.toString();
+        boolean[] found = {false};
+        copy(file, (reader, writer) -> {
+            if (!idStr.equals(reader.getAttributeValue(null, "id"))) {
+                return false;
+            }
+            found[0] = true;
+            Task replacement = edit.apply(readTask(reader));
+            if (replacement != null) {
+                writeTask(writer, replacement);
+            }
+            return true;
+        }, null);
+        return found[0];
+    }
+
+    /**
+     * Rewrites the file in one streaming pass for a set-based change. Every task whose id passes
+     * {@code candidates} is read and replaced by the result of {@code edit}: the task itself to
+     * keep it, a changed task, or null to delete it. Other tasks are copied without being parsed.
+     */
+    public static void rewriteTasks(Path file, Predicate<UUID> candidates, UnaryOperator<Task> edit)
+            throws IOException {
+        copy(file, (reader, writer) -> {
+            String idStr = reader.getAttributeValue(null, "id");
+            if (idStr == null || idStr.isEmpty() || !candidates.test(UUID.fromString(idStr))) {
+                return false;
+            }
+            Task replacement = edit.apply(readTask(reader));
+            if (replacement != null) {
+                writeTask(writer, replacement);
+            }
+            return true;
+        }, null);
+    }
+
+    /**
+     * Appends a task as the last child of the root element with a full streaming rewrite.
+     */
+    public static void appendTask(Path file, Task task) throws IOException {
+        copy(file, (reader, writer) -> false, task);
+    }
+
+    /**
+     * Appends a task by overwriting the closing {@code </tasks>} tag in place with a positioned
+     * {@link FileChannel} write. Only the tail of the file is read and nothing before the insertion
+     * point is touched, so the cost does not depend on how many tasks the file holds.
+     *
+     * @return false, without modifying the file, if the tail is not a {@code </tasks>} end tag
+     *         followed only by whitespace; the caller should then fall back to {@link #appendTask}
+     */
+    public static boolean appendTaskInPlace(Path file, Task task) throws IOException {
+        if (!Files.exists(file)) {
+            createEmpty(file);
+        }
+        byte[] element = taskToXml(task).getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            long size = channel.size();
+            int tailLength = (int) Math.min(size, TAIL_SCAN_BYTES);
+            long tailStart = size - tailLength;
+            ByteBuffer tail = ByteBuffer.allocate(tailLength);
+            while (tail.hasRemaining() && channel.read(tail, tailStart + tail.position()) >= 0) {
+                // keep reading until the tail buffer is full
+            }
+            byte[] bytes = tail.array();
+
+            // Everything after the root end tag must be whitespace
+            int end = tailLength;
+            while (end > 0 && isXmlWhitespace(bytes[end - 1])) {
+                end--;
+            }
+            int tagStart = end - ROOT_END_TAG.length;
+            if (tagStart < 0 || !regionMatches(bytes, tagStart, ROOT_END_TAG)) {
+                return false;
+            }
+            // Overwrite the whitespace before </tasks> too; the new element brings its own indentation
+            int insertAt = tagStart;
+            while (insertAt > 0 && isXmlWhitespace(bytes[insertAt - 1])) {
+                insertAt--;
+            }
+            if (insertAt == 0 && tailStart > 0) {
+                return false; // whitespace run longer than the scanned tail, let the full rewrite normalize it
+            }
+
+            ByteBuffer out = ByteBuffer.allocate(element.length + CLOSING.length);
+            out.put(element).put(CLOSING).flip();
+            long position = tailStart + insertAt;
+            while (out.hasRemaining()) {
+                position += channel.write(out, position);
+            }
+            channel.truncate(position);
+        }
+        return true;
+    }
+
+    private static boolean isXmlWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private static boolean regionMatches(byte[] bytes, int offset, byte[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if (bytes[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Serializes a single task element (with its leading indentation) to a string.
+     */
+    static String taskToXml(Task task) throws IOException {
+        StringWriter out = new StringWriter();
+        try {
+            XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out);
+            writeTask(writer, task);
+            writer.flush();
+            writer.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes one {@code <task>} element, preceded by its indentation.
+     */
+    static void writeTask(XMLStreamWriter writer, Task task) throws XMLStreamException {
+        writer.writeCharacters(TASK_INDENT);
+        writer.writeStartElement("task");
+        writer.writeAttribute("completed", String.valueOf(task.getStatus()));
+        writer.writeAttribute("id", String.valueOf(task.getId()));
+        writeField(writer, "title", task.getTitle());
+        writeField(writer, "description", String.valueOf(task.getDescription()));
+        writeField(writer, "CreatedAt", new SimpleDateFormat(DATE_PATTERN).format(task.getDate()));
+        writer.writeCharacters(TASK_INDENT);
+        writer.writeEndElement();
+    }
+
+    /**
+     * Creates the file with an empty root element.
+     */
+    public static void createEmpty(Path file) throws IOException {
+        Files.writeString(file, XML_DECLARATION + "\n<tasks>\n</tasks>\n", StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a complete {@code tasks.xml} document one task at a time, for exports of any size.
+     * The root element is opened on construction and closed, with the stream, by {@link #close()}.
+     */
+    public static final class TaskWriter implements Closeable {
+        private final Writer out;
+        private final XMLStreamWriter writer;
+
+        public TaskWriter(OutputStream stream) throws IOException {
+            out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 64 * 1024);
+            out.write(XML_DECLARATION);
+            out.write("\n");
+            try {
+                writer = OUTPUT_FACTORY.createXMLStreamWriter(out);
+                writer.writeStartElement("tasks");
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            }
+        }
+
+        public void write(Task task) throws IOException {
+            try {
+                writeTask(writer, task);
+            } catch (XMLStreamException e) {
+                throw new IOException("Cannot write task " + task.getId() + ": " + e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                writer.writeCharacters("\n");
+                writer.writeEndElement();
+                writer.flush();
+                writer.close();
+                out.write("\n");
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    private static void writeField(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
+        writer.writeCharacters(FIELD_INDENT);
+        writer.writeStartElement(name);
+        writer.writeCharacters(value == null ? "" : value);
+        writer.writeEndElement();
+    }
+
+    /**
+     * Handles a {@code <task>} start tag during a copy.
+     * Returns true if it consumed the element (reader left on its end tag), false to copy it unchanged.
+     */
+    @FunctionalInterface
+    private interface TaskHandler {
+        boolean handle(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException;
+    }
+
+    /**
+     * Streams {@code file} into a temp file, letting {@code handler} intercept task elements and
+     * optionally appending {@code appended} before the root end tag, then moves the temp file over the original.
+     */
+    private static void copy(Path file, TaskHandler handler, Task appended) throws IOException {
+        if (!Files.exists(file)) {
+            createEmpty(file);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (InputStream in = Files.newInputStream(file);
+             Writer out = new BufferedWriter(Files.newBufferedWriter(tmp, StandardCharsets.UTF_8), 64 * 1024)) {
+            out.write(XML_DECLARATION);
+            out.write("\n");
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out);
+            try {
+                copyEvents(reader, writer, handler, appended);
+                writer.flush();
+            } finally {
+                reader.close();
+                writer.close();
+            }
+            out.write("\n");
+        } catch (XMLStreamException e) {
+            Files.deleteIfExists(tmp);
+            throw new IOException("Cannot rewrite " + file + ": " + e.getMessage(), e);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void copyEvents(XMLStreamReader reader, XMLStreamWriter writer, TaskHandler handler,
+                                   Task appended) throws XMLStreamException {
+        int depth = 0;
+        // Whitespace between root children is held back so that it can be dropped with a deleted task
+        String pendingWhitespace = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    if (depth == 1 && "task".equals(reader.getLocalName())) {
+                        String whitespace = pendingWhitespace;
+                        pendingWhitespace = null;
+                        // A handler that takes over the element writes its own indentation (or nothing, on delete)
+                        if (handler.handle(reader, writer)) {
+                            continue;
+                        }
+                        if (whitespace != null) {
+                            writer.writeCharacters(whitespace);
+                        }
+                    } else if (pendingWhitespace != null) {
+                        writer.writeCharacters(pendingWhitespace);
+                        pendingWhitespace = null;
+                    }
+                    copyStartElement(reader, writer);
+                    depth++;
+                }
+                case XMLStreamConstants.END_ELEMENT -> {
+                    depth--;
+                    if (depth == 0) {
+                        // Closing the root: add the new task, then normalize the whitespace before </tasks>
+                        if (appended != null) {
+                            writeTask(writer, appended);
+                        }
+                        writer.writeCharacters("\n");
+                        pendingWhitespace = null;
+                    } else if (pendingWhitespace != null) {
+                        writer.writeCharacters(pendingWhitespace);
+                        pendingWhitespace = null;
+                    }
+                    writer.writeEndElement();
+                }
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.SPACE, XMLStreamConstants.CDATA -> {
+                    if (depth == 0) {
+                        break; // whitespace outside the root element is not written back
+                    }
+                    if (depth == 1 && reader.isWhiteSpace()) {
+                        pendingWhitespace = reader.getText();
+                    } else {
+                        writer.writeCharacters(reader.getText());
+                    }
+                }
+                case XMLStreamConstants.COMMENT -> writer.writeComment(reader.getText());
+                case XMLStreamConstants.PROCESSING_INSTRUCTION ->
+                        writer.writeProcessingInstruction(reader.getPITarget(), reader.getPIData());
+                default -> {
+                    // START_DOCUMENT is written by hand (StAX cannot emit standalone="no"); nothing else to copy
+                }
+            }
+        }
+    }
+
+    private static void copyStartElement(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+        String prefix = reader.getPrefix();
+        String namespace = reader.getNamespaceURI();
+        if (namespace == null || namespace.isEmpty()) {
+            writer.writeStartElement(reader.getLocalName());
+        } else {
+            writer.writeStartElement(prefix == null ? "" : prefix, reader.getLocalName(), namespace);
+        }
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            String nsPrefix = reader.getNamespacePrefix(i);
+            if (nsPrefix == null) {
+                writer.writeDefaultNamespace(reader.getNamespaceURI(i));
+            } else {
+                writer.writeNamespace(nsPrefix, reader.getNamespaceURI(i));
+            }
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String attrNamespace = reader.getAttributeNamespace(i);
+            if (attrNamespace == null || attrNamespace.isEmpty()) {
+                writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            } else {
+                writer.writeAttribute(reader.getAttributePrefix(i), attrNamespace,
+                        reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            }
+        }
+    }
+}
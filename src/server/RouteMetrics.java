@@ -0,0 +1,42 @@
+package server;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counters and latency totals for one HTTP route. Updated from many request threads at
+ * once, so every field is a striped adder rather than a lock.
+ */
+class RouteMetrics {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();   // responses with a 4xx or 5xx status
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    void record(int status, long nanos) {
+        requests.increment();
+        if (status >= 400) {
+            errors.increment();
+        }
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    double meanMillis() {
+        long count = requests.sum();
+        return count == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / count;
+    }
+
+    double maxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,406 @@
+package server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import database.DatabaseConfig;
+import database.DatabaseManager;
+import logging.Log;
+import metrics.Metrics;
+import model.CachingTaskRepository;
+import model.Task;
+import model.TaskDAO;
+import model.TaskEvent;
+import model.TaskEvents;
+import model.TaskPage;
+import model.TaskSearchIndex;
+import model.TaskStatistics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless HTTP/JSON front end for the same operations the console {@code TaskController} offers,
+ * built on the JDK's {@code com.sun.net.httpserver}.
+ *
+ * <pre>
+ * GET    /tasks?after={id}&amp;size={n}   one page of tasks (no descriptions), oldest first
+ * POST   /tasks                       add a task: {"title": "...", "description": "..."}
+ * GET    /tasks/{id}                  one task with its description
+ * PATCH  /tasks/{id}                  change title and/or description
+ * POST   /tasks/{id}/toggle           flip the completed flag
+ * DELETE /tasks/{id}                  delete a task
+ * GET    /search?q={words}&amp;limit={n} full-text search, best match first
+ * GET    /stats?days={n}              task counts and tasks created per day for the last n days (default 30)
+ * GET    /health                      200 if the database answers, 503 otherwise; for load balancers
+ *                                     in front of several instances sharing a Derby Network Server
+ * GET    /metrics                     request count, errors and latency per route and per store operation
+ * </pre>
+ *
+ * Each exchange is handled on its own virtual thread, so a request blocked on JDBC costs no
+ * platform thread. Every response is sent with a fixed Content-Length and the request body is
+ * always read to the end, which lets the server keep the connection open for the next request.
+ * Tasks are serialized through the Jackson annotations on {@link Task}.
+ */
+public class TaskHttpServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = Integer.getInteger("taskapp.http.port", 8080);
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 1_000;
+
+    // Metrics keys of the routes dispatch() serves; every other request counts under OTHER_ROUTE,
+    // so clients cannot grow the metrics map with made-up methods and paths
+    private static final Set<String> ROUTES = Set.of(
+            "GET /tasks", "POST /tasks", "GET /tasks/{id}", "PATCH /tasks/{id}", "DELETE /tasks/{id}",
+            "POST /tasks/{id}/toggle", "GET /search", "GET /stats", "GET /health", "GET /metrics");
+    private static final String OTHER_ROUTE = "other";
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TaskDAO taskDAO = new TaskDAO();
+    private final CachingTaskRepository taskRepository = new CachingTaskRepository(taskDAO);
+    private final TaskSearchIndex searchIndex = new TaskSearchIndex();
+    private final TaskStatistics statistics = new TaskStatistics(TaskEvent.Source.DERBY, TaskEvent.Source.CACHE);
+    private final Map<String, RouteMetrics> metrics = new ConcurrentHashMap<>();
+
+    private final Runnable unsubscribe;
+
+    public TaskHttpServer(int port) throws IOException {
+        taskDAO.forEachTask(task -> {
+            searchIndex.index(task);
+            statistics.load(task);
+        });
+        // Keeps the index and statistics current for every change to Derby, including ones made through the repository
+        unsubscribe = TaskEvents.subscribe(event -> {
+            if (event.source() == TaskEvent.Source.DERBY || event.source() == TaskEvent.Source.CACHE) {
+                searchIndex.apply(event);
+                statistics.apply(event);
+            }
+        });
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+        System.out.println("Task API listening on port " + server.getAddress().getPort()
+                + " (" + searchIndex.size() + " tasks indexed)");
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting connections, gives running exchanges a second to finish and writes back
+     * pending cached edits.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+        unsubscribe.run();
+        taskRepository.close();
+    }
+
+    //------------------------------ Dispatch ---------------------------------------------
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/+");
+        String route = route(method, path);
+        int status;
+        try (exchange) {
+            byte[] body = readBody(exchange);
+            Response response;
+            try {
+                response = dispatch(method, path, body, query(exchange));
+            } catch (IllegalArgumentException | JsonProcessingException e) {
+                response = error(400, e.getMessage());
+            } catch (RuntimeException e) {
+                Log.error("Request " + method + " " + exchange.getRequestURI().getPath() + " failed", e);
+                response = error(500, "Internal error");
+            }
+            status = response.status;
+            send(exchange, response);
+        }
+        metrics.computeIfAbsent(route, k -> new RouteMetrics()).record(status, System.nanoTime() - start);
+    }
+
+    /**
+     * @return the route template a request counts under in the metrics, e.g. {@code GET /tasks/{id}}
+     */
+    private static String route(String method, String[] path) {
+        if (path.length > 3) {
+            return OTHER_ROUTE;
+        }
+        String route = method + " /" + path[0] + (path.length > 1 ? "/{id}" : "")
+                + (path.length > 2 ? "/" + path[2] : "");
+        return ROUTES.contains(route) ? route : OTHER_ROUTE;
+    }
+
+    private Response dispatch(String method, String[] path, byte[] body, Map<String, String> query)
+            throws JsonProcessingException {
+        switch (path[0]) {
+            case "tasks":
+                if (path.length == 1) {
+                    return switch (method) {
+                        case "GET" -> listTasks(query);
+                        case "POST" -> addTask(body);
+                        default -> error(405, "Method not allowed");
+                    };
+                }
+                UUID id = UUID.fromString(path[1]);
+                if (path.length == 3 && path[2].equals("toggle") && method.equals("POST")) {
+                    return toggleTask(id);
+                }
+                if (path.length > 2) {
+                    break;
+                }
+                return switch (method) {
+                    case "GET" -> getTask(id);
+                    case "PATCH" -> editTask(id, body);
+                    case "DELETE" -> deleteTask(id);
+                    default -> error(405, "Method not allowed");
+                };
+            case "search":
+                if (method.equals("GET") && path.length == 1) {
+                    return search(query);
+                }
+                break;
+            case "stats":
+                if (method.equals("GET") && path.length == 1) {
+                    return stats(query);
+                }
+                break;
+            case "health":
+                if (method.equals("GET") && path.length == 1) {
+                    return health();
+                }
+                break;
+            case "metrics":
+                if (method.equals("GET") && path.length == 1) {
+                    return json(200, metricsSnapshot());
+                }
+                break;
+            default:
+                break;
+        }
+        return error(404, "Not found");
+    }
+
+    //------------------------------ Operations -------------------------------------------
+    private Response listTasks(Map<String, String> query) throws JsonProcessingException {
+        int size = Math.min(MAX_PAGE_SIZE, Integer.parseInt(query.getOrDefault("size", "" + DEFAULT_PAGE_SIZE)));
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be at least 1");
+        }
+        Task after = null;
+        if (query.containsKey("after")) {
+            after = taskRepository.findById(UUID.fromString(query.get("after")));
+            if (after == null) {
+                return error(404, "Cursor task not found");
+            }
+        }
+        TaskPage page = taskRepository.listTasksPage(after, size);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("tasks", page.getTasks());
+        result.put("hasNext", page.hasNext());
+        return json(200, result);
+    }
+
+    private Response addTask(byte[] body) throws JsonProcessingException {
+        JsonNode request = objectMapper.readTree(new String(body, StandardCharsets.UTF_8));
+        String title = text(request, "title");
+        String description = text(request, "description");
+        if (title == null || title.isEmpty()) {
+            throw new IllegalArgumentException("Task title can not be empty.");
+        }
+        Task task = new Task(title, description == null ? "" : description);
+        taskRepository.save(task);
+        return json(201, task);
+    }
+
+    private Response getTask(UUID id) throws JsonProcessingException {
+        Task task = taskRepository.findById(id);
+        return task == null ? error(404, "Task not found") : json(200, task);
+    }
+
+    private Response editTask(UUID id, byte[] body) throws JsonProcessingException {
+        JsonNode request = objectMapper.readTree(new String(body, StandardCharsets.UTF_8));
+        String title = text(request, "title");
+        String description = text(request, "description");
+        if (title != null && title.isEmpty()) {
+            throw new IllegalArgumentException("Title can not be empty.");
+        }
+        Task task = taskRepository.findById(id);
+        if (task == null) {
+            return error(404, "Task not found");
+        }
+        if (title != null) {
+            taskRepository.editTitle(task, title);
+        }
+        if (description != null) {
+            taskRepository.changeDescription(task, description);
+        }
+        return json(200, task);
+    }
+
+    private Response toggleTask(UUID id) throws JsonProcessingException {
+        Task task = taskRepository.findById(id);
+        if (task == null) {
+            return error(404, "Task not found");
+        }
+        taskRepository.toggleTaskStatus(task);
+        return json(200, task);
+    }
+
+    private Response deleteTask(UUID id) {
+        Task task = taskRepository.findById(id);
+        if (task == null) {
+            return error(404, "Task not found");
+        }
+        taskRepository.deleteTask(task);
+        return new Response(204, new byte[0]);
+    }
+
+    private Response search(Map<String, String> query) throws JsonProcessingException {
+        int limit = Math.min(MAX_PAGE_SIZE, Integer.parseInt(query.getOrDefault("limit", "" + DEFAULT_PAGE_SIZE)));
+        List<Task> matches = new ArrayList<>();
+        for (TaskSearchIndex.SearchResult result : searchIndex.search(query.getOrDefault("q", ""), limit)) {
+            Task task = taskRepository.findById(result.id());
+            if (task != null) {
+                matches.add(task);
+            }
+        }
+        return json(200, matches);
+    }
+
+    private Response stats(Map<String, String> query) throws JsonProcessingException {
+        int days = Integer.parseInt(query.getOrDefault("days", "30"));
+        if (days < 1 || days > 3660) {
+            throw new IllegalArgumentException("days must be between 1 and 3660");
+        }
+        LocalDate today = LocalDate.now();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("summary", statistics.summary());
+        List<Map<String, Object>> perDay = new ArrayList<>(days);
+        for (TaskStatistics.Day day : statistics.createdPerDay(today.minusDays(days - 1), today)) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("date", day.date().toString());
+            entry.put("created", day.created());
+            entry.put("completed", day.completed());
+            perDay.add(entry);
+        }
+        result.put("createdPerDay", perDay);
+        return json(200, result);
+    }
+
+    private Response health() throws JsonProcessingException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", DatabaseConfig.DB_MODE);
+        try {
+            long millis = DatabaseManager.checkHealth();
+            result.put("status", "UP");
+            result.put("latencyMs", millis);
+            return json(200, result);
+        } catch (SQLException e) {
+            result.put("status", "DOWN");
+            result.put("error", e.getMessage());
+            return json(503, result);
+        }
+    }
+
+    private Map<String, Object> metricsSnapshot() {
+        Map<String, Object> routes = new TreeMap<>();
+        metrics.forEach((route, m) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("requests", m.requests());
+            entry.put("errors", m.errors());
+            entry.put("meanMs", m.meanMillis());
+            entry.put("maxMs", m.maxMillis());
+            routes.put(route, entry);
+        });
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("routes", routes);
+        result.put("operations", Metrics.snapshots());
+        result.put("cache", taskRepository.metrics().toString());
+        result.put("pool", DatabaseManager.getPoolMetrics().toString());
+        return result;
+    }
+
+    //------------------------------ HTTP plumbing ----------------------------------------
+    private record Response(int status, byte[] body) { }
+
+    private Response json(int status, Object value) throws JsonProcessingException {
+        return new Response(status, objectMapper.writeValueAsBytes(value));
+    }
+
+    private Response error(int status, String message) {
+        try {
+            return json(status, Map.of("error", message == null ? "" : message));
+        } catch (JsonProcessingException e) {
+            return new Response(status, new byte[0]);
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node == null ? null : node.get(field);
+        return value == null || value.isNull() ? null : value.asText().trim();
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        if (response.body.length == 0) {
+            // -1: no body at all, the connection stays usable
+            exchange.sendResponseHeaders(response.status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, response.body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(response.body);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
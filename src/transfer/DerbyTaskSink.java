@@ -0,0 +1,35 @@
+package transfer;
+
+import model.Task;
+import model.TaskDAO;
+
+import java.util.List;
+
+/**
+ * Inserts into the Derby {@code tasks} table. Each batch is one JDBC batch and one transaction
+ * ({@link TaskDAO#saveAll(java.util.Collection, int)}), so a failure rolls back only the batch it
+ * happened in and the batches before it stay committed. Tasks keep their ids; an id already in the
+ * table fails its batch.
+ */
+class DerbyTaskSink implements TaskSink {
+
+    private final TaskDAO dao;
+
+    DerbyTaskSink(TaskDAO dao) {
+        this.dao = dao;
+    }
+
+    @Override
+    public void write(List<Task> batch) {
+        dao.saveAll(batch, batch.size());
+    }
+
+    @Override
+    public void finish() {
+        // every batch is committed as it is written
+    }
+
+    @Override
+    public void close() {
+    }
+}
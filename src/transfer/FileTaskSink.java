@@ -0,0 +1,75 @@
+package transfer;
+
+import model.Task;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Base for sinks that produce a whole file. Tasks are written to {@code <file>.tmp}, which replaces
+ * the target atomically in {@link #finish()}; an unfinished transfer deletes it and leaves the
+ * target as it was.
+ */
+abstract class FileTaskSink implements TaskSink {
+
+    protected final Path file;
+    private final Path tmp;
+    private boolean finished;
+    private boolean closed;
+
+    protected FileTaskSink(Path file) throws IOException {
+        this.file = file;
+        this.tmp = Path.of(file + ".tmp");
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        open(Files.newOutputStream(tmp));
+    }
+
+    /**
+     * Starts the document on the temporary file's stream.
+     */
+    protected abstract void open(OutputStream out) throws IOException;
+
+    protected abstract void write(Task task) throws IOException;
+
+    /**
+     * Ends the document and closes the stream.
+     */
+    protected abstract void closeDocument() throws IOException;
+
+    @Override
+    public void write(List<Task> batch) throws IOException {
+        for (Task task : batch) {
+            write(task);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        closed = true;
+        closeDocument();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            if (!closed) {
+                closed = true;
+                closeDocument();
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
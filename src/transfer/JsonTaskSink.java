@@ -0,0 +1,48 @@
+package transfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import logging.Log;
+import model.JsonTaskWriter;
+import model.Task;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a {@code JsonDatabase} snapshot. The store's journal next to the target belongs to the
+ * snapshot being replaced, so it is deleted once the new file is in place.
+ */
+class JsonTaskSink extends FileTaskSink {
+
+    private JsonTaskWriter writer;
+
+    JsonTaskSink(Path file) throws IOException {
+        super(file);
+    }
+
+    @Override
+    protected void open(OutputStream out) throws IOException {
+        writer = new JsonTaskWriter(out, new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT));
+    }
+
+    @Override
+    protected void write(Task task) throws IOException {
+        writer.write(task);
+    }
+
+    @Override
+    protected void closeDocument() throws IOException {
+        writer.close();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        super.finish();
+        if (Files.deleteIfExists(Path.of(file + ".journal"))) {
+            Log.info("Deleted the journal of the replaced snapshot %s", file);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package transfer;
+
+import model.Task;
+import model.TaskDAO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Where a {@link TransferPipeline} writes tasks to, one batch at a time.
+ *
+ * The pipeline calls {@link #write} for every batch, then {@link #finish()} once the source is
+ * exhausted, and always {@link #close()}. A sink that is closed without being finished discards
+ * what it can: file sinks delete their temporary file and leave the target untouched.
+ */
+public interface TaskSink extends Closeable {
+
+    void write(List<Task> batch) throws IOException;
+
+    /**
+     * Completes the target after the last batch, e.g. moves a temporary file into place.
+     */
+    void finish() throws IOException;
+
+    /**
+     * A JSON array of tasks in the {@code JsonDatabase} format, replacing {@code file}.
+     */
+    static TaskSink json(Path file) throws IOException {
+        return new JsonTaskSink(file);
+    }
+
+    /**
+     * A {@code tasks.xml} document in the {@code XMLDatabase} format, replacing {@code file}.
+     */
+    static TaskSink xml(Path file) throws IOException {
+        return new XmlTaskSink(file);
+    }
+
+    /**
+     * Inserts into the Derby {@code tasks} table, one transaction per batch.
+     */
+    static TaskSink derby(TaskDAO dao) {
+        return new DerbyTaskSink(dao);
+    }
+}
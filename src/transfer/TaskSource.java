@@ -0,0 +1,65 @@
+package transfer;
+
+import model.JsonDatabase;
+import model.Task;
+import model.TaskDAO;
+import model.XmlTaskStreamer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Where a {@link TransferPipeline} reads tasks from. A source streams its tasks to the action one at
+ * a time and never holds more than the task being read.
+ */
+@FunctionalInterface
+public interface TaskSource {
+
+    /**
+     * Passes every task to {@code action}, in source order, on the calling thread.
+     *
+     * @throws java.nio.file.NoSuchFileException if a file source does not exist, so a mistyped
+     *         path fails the transfer instead of replacing the target with an empty one
+     */
+    void forEach(Consumer<Task> action) throws IOException;
+
+    /**
+     * @return how many tasks {@link #forEach} will produce, or -1 if that is not known up front
+     */
+    default long sizeHint() {
+        return -1;
+    }
+
+    /**
+     * A {@code JsonDatabase} store: the JSON array of tasks with the changes in its
+     * {@code <file>.journal} applied, read with {@link JsonDatabase#forEachTask(Path, Consumer)}.
+     */
+    static TaskSource json(Path file) {
+        return action -> JsonDatabase.forEachTask(file, action);
+    }
+
+    /**
+     * A {@code tasks.xml} document in the {@code XMLDatabase} format, read with StAX.
+     */
+    static TaskSource xml(Path file) {
+        return action -> XmlTaskStreamer.forEachTask(file, action);
+    }
+
+    /**
+     * The Derby {@code tasks} table, read with one streaming query.
+     */
+    static TaskSource derby(TaskDAO dao) {
+        return new TaskSource() {
+            @Override
+            public void forEach(Consumer<Task> action) {
+                dao.forEachTask(action);
+            }
+
+            @Override
+            public long sizeHint() {
+                return dao.countTasks();
+            }
+        };
+    }
+}
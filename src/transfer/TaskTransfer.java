@@ -0,0 +1,80 @@
+package transfer;
+
+import database.DatabaseInitializer;
+import database.DatabaseManager;
+import logging.Log;
+import model.TaskDAO;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command line front end for {@link TransferPipeline}. An endpoint is {@code derby} for the
+ * embedded database's {@code tasks} table, or a path ending in {@code .json} or {@code .xml}.
+ *
+ * <pre>
+ * java -cp ... transfer.TaskTransfer tasks.json derby
+ * java -cp ... transfer.TaskTransfer derby export/tasks.xml
+ * java -cp ... transfer.TaskTransfer tasks.xml tasks.json
+ * </pre>
+ *
+ * File targets are replaced; Derby targets are appended to. Batch and queue sizes come from
+ * {@code -Dtaskapp.insert.batchSize} and {@code -Dtaskapp.transfer.queueBatches}.
+ */
+public final class TaskTransfer {
+
+    private static final String DERBY = "derby";
+
+    private TaskTransfer() {
+    }
+
+    public static TaskSource source(String endpoint) {
+        if (endpoint.equalsIgnoreCase(DERBY)) {
+            return TaskSource.derby(new TaskDAO());
+        }
+        Path file = Path.of(endpoint);
+        return switch (extension(endpoint)) {
+            case "json" -> TaskSource.json(file);
+            case "xml" -> TaskSource.xml(file);
+            default -> throw new IllegalArgumentException("Unknown source " + endpoint);
+        };
+    }
+
+    public static TaskSink sink(String endpoint) throws IOException {
+        if (endpoint.equalsIgnoreCase(DERBY)) {
+            return TaskSink.derby(new TaskDAO());
+        }
+        Path file = Path.of(endpoint);
+        return switch (extension(endpoint)) {
+            case "json" -> TaskSink.json(file);
+            case "xml" -> TaskSink.xml(file);
+            default -> throw new IllegalArgumentException("Unknown target " + endpoint);
+        };
+    }
+
+    private static String extension(String endpoint) {
+        int dot = endpoint.lastIndexOf('.');
+        return dot < 0 ? "" : endpoint.substring(dot + 1).toLowerCase();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: TaskTransfer <from> <to>   (derby | file.json | file.xml)");
+            System.exit(2);
+        }
+        boolean derby = args[0].equalsIgnoreCase(DERBY) || args[1].equalsIgnoreCase(DERBY);
+        if (derby) {
+            DatabaseInitializer.initializeDatabase();
+        }
+        try {
+            TransferProgress done = new TransferPipeline(source(args[0]), sink(args[1])).run();
+            System.out.printf("Transferred %,d tasks from %s to %s in %.1f s (%,.0f tasks/s)%n", done.written(),
+                    args[0], args[1], done.elapsedNanos() / 1e9, done.tasksPerSecond());
+        } finally {
+            if (derby) {
+                DatabaseManager.shutdown();
+            }
+            Log.flush();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package transfer;
+
+import database.DatabaseConfig;
+import logging.Log;
+import model.Task;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Copies every task from a {@link TaskSource} to a {@link TaskSink} in two stages that run at the
+ * same time:
+ *
+ * <pre>
+ * transfer-reader thread:  source -> batches of batchSize tasks -> bounded queue
+ * calling thread:          bounded queue -> sink.write(batch) -> ... -> sink.finish()
+ * </pre>
+ *
+ * Parsing and writing overlap, and the bounded queue makes a fast reader wait for a slow writer,
+ * so at most {@code (queueBatches + 2) * batchSize} tasks are in memory whatever the size of the
+ * source. Progress is passed to a listener every {@code -Dtaskapp.transfer.progressIntervalMs}
+ * (default 2000) and logged by default.
+ *
+ * If either stage fails the other one stops, the sink is closed without being finished, and the
+ * failure is thrown from {@link #run}.
+ */
+public class TransferPipeline {
+
+    public static final int DEFAULT_BATCH_SIZE = DatabaseConfig.INSERT_BATCH_SIZE;
+    public static final int DEFAULT_QUEUE_BATCHES = Integer.getInteger("taskapp.transfer.queueBatches", 8);
+    public static final long PROGRESS_INTERVAL_MILLIS = Long.getLong("taskapp.transfer.progressIntervalMs", 2_000);
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+
+    private final TaskSource source;
+    private final TaskSink sink;
+    private final int batchSize;
+    private final int queueBatches;
+    private final BlockingQueue<List<Task>> queue;
+    private final List<Task> endOfSource = new ArrayList<>(0); // compared by identity
+
+    private volatile boolean cancelled;
+    private volatile Throwable readFailure;
+    private volatile long read;
+    private volatile long written;
+    private List<Task> pending; // the batch being filled, reader thread only
+    private long expected = -1;
+    private long start;
+
+    public TransferPipeline(TaskSource source, TaskSink sink) {
+        this(source, sink, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_BATCHES);
+    }
+
+    public TransferPipeline(TaskSource source, TaskSink sink, int batchSize, int queueBatches) {
+        if (batchSize < 1 || queueBatches < 1) {
+            throw new IllegalArgumentException("batchSize and queueBatches must be at least 1");
+        }
+        this.source = source;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.queueBatches = queueBatches;
+        this.queue = new ArrayBlockingQueue<>(queueBatches);
+    }
+
+    /**
+     * Runs the transfer, logging progress.
+     */
+    public TransferProgress run() throws IOException {
+        return run(progress -> Log.info("Transferred %s", progress));
+    }
+
+    /**
+     * Runs the transfer and closes the sink.
+     *
+     * @param listener called on the calling thread with the progress so far, at most once per
+     *                 progress interval
+     * @return the final counters
+     */
+    public TransferProgress run(Consumer<TransferProgress> listener) throws IOException {
+        start = System.nanoTime();
+        expected = source.sizeHint();
+        Thread reader = new Thread(this::readAll, "transfer-reader");
+        reader.start();
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(PROGRESS_INTERVAL_MILLIS);
+        long nextReport = start + intervalNanos;
+        try (sink) {
+            while (true) {
+                List<Task> batch = queue.poll(OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (batch == null) {
+                    if (!reader.isAlive() && queue.isEmpty()) {
+                        break; // the reader stopped without an end marker, readFailure says why
+                    }
+                    continue;
+                }
+                if (batch == endOfSource) {
+                    break;
+                }
+                sink.write(batch);
+                written += batch.size();
+                if (System.nanoTime() >= nextReport) {
+                    listener.accept(progress());
+                    nextReport = System.nanoTime() + intervalNanos;
+                }
+            }
+            Throwable failure = readFailure;
+            if (failure == null && written < read) {
+                failure = new IllegalStateException("reader stopped unexpectedly");
+            }
+            if (failure != null) {
+                throw new IOException("Reading the source failed after " + read + " tasks: " + failure.getMessage(),
+                        failure);
+            }
+            sink.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Transfer interrupted after " + written + " tasks", e);
+        } finally {
+            cancelled = true; // stops the reader if the sink failed; harmless once it is done
+            joinQuietly(reader);
+        }
+        TransferProgress done = progress();
+        Log.info("Transfer complete: %s", done);
+        return done;
+    }
+
+    public TransferProgress progress() {
+        return new TransferProgress(read, written, expected, System.nanoTime() - start, queue.size(), queueBatches);
+    }
+
+    //------------------------------ Reader thread ----------------------------------------
+    private void readAll() {
+        pending = new ArrayList<>(batchSize);
+        try {
+            source.forEach(task -> {
+                pending.add(task);
+                read++;
+                if (pending.size() == batchSize) {
+                    enqueue(pending);
+                    pending = new ArrayList<>(batchSize);
+                }
+            });
+            if (!pending.isEmpty()) {
+                enqueue(pending);
+            }
+            enqueue(endOfSource);
+        } catch (Throwable e) {
+            if (!cancelled) {
+                readFailure = e; // the writer notices the reader has stopped and reports this
+            }
+        }
+    }
+
+    /**
+     * Waits for room in the queue, giving up with a {@link CancellationException} if the writer has
+     * stopped.
+     */
+    private void enqueue(List<Task> batch) {
+        try {
+            while (!queue.offer(batch, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (cancelled) {
+                    throw new CancellationException();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted");
+        }
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
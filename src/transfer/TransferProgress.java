@@ -0,0 +1,33 @@
+package transfer;
+
+/**
+ * Counters of a running or finished {@link TransferPipeline}.
+ *
+ * @param read          tasks the source has produced
+ * @param written       tasks the sink has accepted
+ * @param expected      tasks the source said it would produce, or -1 if unknown
+ * @param elapsedNanos  time since the transfer started
+ * @param queuedBatches batches read but not yet written
+ * @param queueCapacity the most batches that can be waiting
+ */
+public record TransferProgress(long read, long written, long expected, long elapsedNanos,
+                               int queuedBatches, int queueCapacity) {
+
+    public double tasksPerSecond() {
+        return elapsedNanos == 0 ? 0 : written * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return percentage of the expected tasks written, or -1 if the total is unknown
+     */
+    public double percentDone() {
+        return expected <= 0 ? -1 : written * 100.0 / expected;
+    }
+
+    @Override
+    public String toString() {
+        String done = expected < 0 ? "" : String.format(" of %,d (%.0f%%)", expected, percentDone());
+        return String.format("%,d tasks%s in %.1f s, %,.0f tasks/s, queue %d/%d batches", written, done,
+                elapsedNanos / 1e9, tasksPerSecond(), queuedBatches, queueCapacity);
+    }
+}
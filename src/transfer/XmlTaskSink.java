@@ -0,0 +1,35 @@
+package transfer;
+
+import model.Task;
+import model.XmlTaskStreamer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Writes a {@code tasks.xml} document in the {@code XMLDatabase} format.
+ */
+class XmlTaskSink extends FileTaskSink {
+
+    private XmlTaskStreamer.TaskWriter writer;
+
+    XmlTaskSink(Path file) throws IOException {
+        super(file);
+    }
+
+    @Override
+    protected void open(OutputStream out) throws IOException {
+        writer = new XmlTaskStreamer.TaskWriter(out);
+    }
+
+    @Override
+    protected void write(Task task) throws IOException {
+        writer.write(task);
+    }
+
+    @Override
+    protected void closeDocument() throws IOException {
+        writer.close();
+    }
+}
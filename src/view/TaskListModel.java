@@ -0,0 +1,69 @@
+package view;
+
+import model.Task;
+import model.TaskEvent;
+import model.TaskTable;
+
+/**
+ * The view's own copy of the task list: id, title, date and status of every task, without
+ * descriptions, in a {@link TaskTable}. It is filled once at startup and then patched from
+ * {@link TaskEvent}s, so drawing the menu never queries the store and each change costs O(1).
+ *
+ * An update or toggle of a task the model does not hold is ignored, so a late write-back of a
+ * task that has since been deleted cannot bring it back.
+ *
+ * Thread-safe: events may arrive from a background flusher while the console thread reads.
+ */
+public class TaskListModel {
+
+    private final TaskTable table = new TaskTable();
+
+    /**
+     * Adds a task while the model is first filled.
+     */
+    public synchronized void load(Task task) {
+        table.add(summary(task));
+    }
+
+    public synchronized void apply(TaskEvent event) {
+        switch (event) {
+            case TaskEvent.Added added -> table.add(summary(added.task()));
+            case TaskEvent.Updated updated -> {
+                int row = table.rowOf(updated.id());
+                if (row >= 0) {
+                    table.setTitle(row, updated.task().getTitle());
+                    table.setCompleted(row, updated.task().getStatus());
+                }
+            }
+            case TaskEvent.Toggled toggled -> {
+                int row = table.rowOf(toggled.id());
+                if (row >= 0) {
+                    table.setCompleted(row, toggled.task().getStatus());
+                }
+            }
+            case TaskEvent.StatusChanged changed -> {
+                int row = table.rowOf(changed.id());
+                if (row >= 0) {
+                    table.setCompleted(row, changed.completed());
+                }
+            }
+            case TaskEvent.Deleted deleted -> table.remove(deleted.id());
+        }
+    }
+
+    public synchronized int size() {
+        return table.size();
+    }
+
+    public synchronized int openTasks() {
+        return table.countOpen();
+    }
+
+    public synchronized int completedTasks() {
+        return table.countCompleted();
+    }
+
+    private static Task summary(Task task) {
+        return new Task(task.getTitle(), null, task.getDate(), task.getStatus(), task.getId());
+    }
+}
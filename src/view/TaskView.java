@@ -1,7 +1,10 @@
 package view;
 
 import model.Task;
+import model.TaskStatistics;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 public class TaskView {
     public void displayTask(Task task) {
@@ -18,17 +21,21 @@ public class TaskView {
         }
     }
 
-    public void displayMenu(List<Task> tasks) {
+    public void displayMenu(TaskListModel model) {
         System.out.println("\n=== Task Manager ===");
         System.out.println("1. Add Task");
 
-        if (tasks.isEmpty()) {
+        if (model.size() == 0) {
             System.out.println("No tasks to show.");
         } else {
-            System.out.println("2. View All Tasks");
+            System.out.println("2. View All Tasks (" + model.openTasks() + " open, "
+                    + model.completedTasks() + " completed)");
+            System.out.println("3. Search Tasks");
+            System.out.println("4. Bulk Actions");
+            System.out.println("5. Statistics");
         }
 
-        System.out.println("3. Exit");
+        System.out.println("6. Exit");
 
     }
 
@@ -49,6 +56,82 @@ public class TaskView {
 
 
 
+    /**
+     * Prints the task counts and one bar per day, '#' for completed and '+' for open tasks created
+     * that day. Bars are scaled to fit 40 characters.
+     */
+    public void displayStatistics(TaskStatistics.Summary summary, List<TaskStatistics.Day> days) {
+        System.out.println("=== Statistics ===");
+        System.out.println(summary);
+        int max = 1;
+        for (TaskStatistics.Day day : days) {
+            max = Math.max(max, day.created());
+        }
+        double scale = Math.min(1.0, 40.0 / max);
+        for (TaskStatistics.Day day : days) {
+            int completed = (int) Math.round(day.completed() * scale);
+            int open = (int) Math.round(day.created() * scale) - completed;
+            System.out.printf("%s %4d %s%s%n", day.date(), day.created(), "#".repeat(completed),
+                    "+".repeat(Math.max(0, open)));
+        }
+    }
+
+    public void displayPageHeader(int pageNumber) {
+        System.out.println("=== Page " + pageNumber + " ===");
+    }
+
+    public void displaySearchHeader(String query, int matches) {
+        System.out.println("=== " + matches + " best matches for \"" + query + "\" ===");
+    }
+
+    /**
+     * Prints the navigation choices shown under a page of titles.
+     * An option number below 1 means the choice is not available and is not printed.
+     */
+    public void pageOptions(int nextPage, int previousPage, int returnBack) {
+        if (nextPage > 0) {
+            System.out.println(nextPage + ". Next page");
+        }
+        if (previousPage > 0) {
+            System.out.println(previousPage + ". Previous page");
+        }
+        System.out.println(returnBack + ". Return");
+    }
+
+    /**
+     * Prints a page of titles for multi-select, marking the selected tasks with [x].
+     */
+    public void selectableTitles(List<Task> tasks, Set<UUID> selected) {
+        int i = 0;
+        for (Task task : tasks) {
+            i++;
+            System.out.println((selected.contains(task.getId()) ? "[x] " : "[ ] ") + i + ". " + task.getTitle());
+        }
+    }
+
+    public void selectionHelp(boolean hasNextPage, boolean hasPreviousPage, int selectedCount) {
+        System.out.println(selectedCount + " selected. Enter task numbers or ranges to select or unselect (e.g. 1 3 5-8),");
+        System.out.print((hasNextPage ? "n = next page, " : "") + (hasPreviousPage ? "p = previous page, " : "")
+                + "d = done, c = cancel: ");
+    }
+
+    public void bulkOptions() {
+        System.out.println("""
+                1. Select tasks
+                2. Delete all completed tasks
+                3. Delete tasks created in a date range
+                4. Return""");
+    }
+
+    public void selectionActions(int selectedCount) {
+        System.out.println("=== " + selectedCount + " task(s) selected ===");
+        System.out.println("""
+                1. Mark completed
+                2. Reopen
+                3. Delete
+                4. Cancel""");
+    }
+
     public void editOptions(){
         System.out.println("""
                 1. Edit title